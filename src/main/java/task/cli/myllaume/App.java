@@ -1,17 +1,42 @@
 package task.cli.myllaume;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import task.cli.myllaume.config.AppConfig;
 import task.cli.myllaume.config.AppConfigRepository;
-import task.cli.myllaume.db.ProjectsRepository;
-import task.cli.myllaume.db.TaskManager;
+import task.cli.myllaume.config.ConfigDefaultProvider;
+import task.cli.myllaume.daemon.DaemonClient;
+import task.cli.myllaume.daemon.DaemonServer;
+import task.cli.myllaume.db.ConnectionPool;
+import task.cli.myllaume.db.QueryStats;
 
 @Command(
     name = "tasks",
     mixinStandardHelpOptions = true,
     description = "Gestion des tâches en CLI",
-    version = "0.1.0-alpha.1")
+    version = "0.1.0-alpha.1",
+    subcommands = {
+      CommandList.class,
+      CommandAdd.class,
+      CommandSearch.class,
+      CommandRemove.class,
+      CommandDone.class,
+      CommandClear.class,
+      CommandImport.class,
+      CommandStats.class
+    })
 public class App implements Runnable {
+  @Option(
+      names = "--train",
+      description =
+          "Exécuter un échantillon de commandes sur une base temporaire, pour générer l'archive CDS")
+  boolean train;
+
   @Override
   public void run() {
     // Peut rester vide si tout passe par les sous-commandes
@@ -19,46 +44,59 @@ public class App implements Runnable {
 
   public static void main(String[] args) {
     try {
+      if (args.length == 1 && args[0].equals("--train")) {
+        AppTraining.run();
+        System.exit(0);
+      }
 
       AppDirs appDirs = new AppDirs();
+      Path socketPath = Path.of(appDirs.getCacheDir(), DaemonServer.SOCKET_NAME);
+      if (isForwardable(args)) {
+        Integer exitCode = DaemonClient.tryForward(socketPath, args, System.out, System.err);
+        if (exitCode != null) {
+          System.exit(exitCode);
+        }
+      }
+
       String dataDir = appDirs.getDataDir();
       String configDir = appDirs.getConfigDir();
 
-      ProjectsRepository projectsRepository = new ProjectsRepository(dataDir);
-      AppState appState = new AppState(new AppConfigRepository(configDir), projectsRepository);
-
+      AppConfigRepository configRepository = new AppConfigRepository(configDir);
+      AppConfig config;
+      CommandLine cmd;
+      CommandFactory factory;
       try {
-        if (appState.isFirstLaunch()) {
-          appState.firstLaunchSetup();
-          System.out.println("✓ Initial configuration completed successfully");
-        }
-      } catch (Exception e) {
-        System.err.println("Critical error during first launch: " + e.getMessage());
-        System.err.println("Please check write permissions in: " + dataDir);
+        config = configRepository.getConfig();
+        ConnectionPool.configure(config.getPoolSize(), config.getCacheSizeKib());
+        QueryStats.configure(
+            config.isQueryStatsEnabled(),
+            Path.of(appDirs.getCacheDir()),
+            config.getSlowQueryMillis());
+
+        factory = new CommandFactory(dataDir, configRepository, config.getPragmaProfile());
+        cmd = createCommandLine(factory, config);
+      } catch (IllegalArgumentException | IllegalStateException e) {
+        // Une configuration invalide est une erreur de l'utilisateur, pas un plantage
+        System.err.println("Configuration invalide : " + e.getMessage());
         System.exit(1);
+        return;
       }
 
-      TaskRepositorySqlite tasksRepo = new TaskRepositorySqlite(dataDir);
-
-      TaskManager manager = new TaskManager(tasksRepo, projectsRepository);
-
-      CommandLine cmd = new CommandLine(new App());
-      CommandList commandList = new CommandList(tasksRepo);
-      cmd.addSubcommand("list", commandList);
-      CommandAdd commandAdd = new CommandAdd(manager);
-      cmd.addSubcommand("add", commandAdd);
-      CommandSearch commandSearch = new CommandSearch(tasksRepo);
-      cmd.addSubcommand("search", commandSearch);
-      CommandRemove commandRemove = new CommandRemove(tasksRepo);
-      cmd.addSubcommand("remove", commandRemove);
-      CommandDone commandDone = new CommandDone(tasksRepo);
-      cmd.addSubcommand("done", commandDone);
-      CommandClear CommandClear = new CommandClear(projectsRepository);
-      cmd.addSubcommand("clear", CommandClear);
-      CommandImport commandImport = new CommandImport(manager);
-      cmd.addSubcommand("import", commandImport);
+      // Le serveur construit une ligne de commande neuve par requête : aucune option ne reste
+      // d'une commande à l'autre. Les dépôts, eux, sont partagés par toutes les requêtes
+      CommandServe commandServe =
+          new CommandServe(
+              socketPath,
+              commandArgs -> {
+                int requestExitCode = createCommandLine(factory, config).execute(commandArgs);
+                flushQueryStats();
+                return requestExitCode;
+              });
+      cmd.addSubcommand("serve", commandServe);
 
       int exitCode = cmd.execute(args);
+      ConnectionPool.closeAll();
+      flushQueryStats();
       System.exit(exitCode);
 
     } catch (Exception e) {
@@ -67,4 +105,58 @@ public class App implements Runnable {
       System.exit(1);
     }
   }
+
+  /**
+   * Les sous-commandes sont créées par {@code factory}, qui n'ouvre la base qu'à leur exécution.
+   */
+  static CommandLine createCommandLine(CommandFactory factory, AppConfig config) {
+    CommandLine cmd = new CommandLine(App.class, factory);
+    new ConfigDefaultProvider(config).install(cmd);
+    cmd.setExecutionStrategy(parseResult -> execute(factory, parseResult));
+    return cmd;
+  }
+
+  /**
+   * Termine la première installation avant la commande : les commandes rattrapent leurs erreurs
+   * pour les afficher, un échec de l'installation sortirait sinon avec le code 0.
+   */
+  private static int execute(CommandFactory factory, CommandLine.ParseResult parseResult) {
+    Integer helpExitCode = CommandLine.executeHelpRequest(parseResult);
+    if (helpExitCode != null) {
+      return helpExitCode;
+    }
+
+    CommandLine.ParseResult last = parseResult;
+    while (last.hasSubcommand()) {
+      last = last.subcommand();
+    }
+    if (factory.needsDatabase(last.commandSpec().userObject())) {
+      try {
+        factory.getProjectsRepository();
+      } catch (IllegalStateException e) {
+        parseResult.commandSpec().commandLine().getErr().println(e.getMessage());
+        return 1;
+      }
+    }
+    return new CommandLine.RunLast().execute(parseResult);
+  }
+
+  private static void flushQueryStats() {
+    try {
+      QueryStats.flush();
+    } catch (IOException e) {
+      // Les mesures de cette exécution sont perdues, la commande a tout de même abouti
+    }
+  }
+
+  /**
+   * Les commandes qui lisent l'entrée standard ou des chemins relatifs au dossier courant du client
+   * s'exécutent toujours localement.
+   */
+  static boolean isForwardable(String[] args) {
+    if (args.length > 0 && List.of("serve", "import").contains(args[0])) {
+      return false;
+    }
+    return !Arrays.asList(args).contains("--stdin");
+  }
 }
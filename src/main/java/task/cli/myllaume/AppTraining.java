@@ -0,0 +1,108 @@
+package task.cli.myllaume;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import task.cli.myllaume.config.AppConfig;
+import task.cli.myllaume.config.AppConfigRepository;
+import task.cli.myllaume.db.ConnectionPool;
+
+/**
+ * Mode {@code tasks --train} : exécute un échantillon représentatif de commandes dans un dossier
+ * temporaire, pour que la JVM charge les classes d'un lancement habituel (picocli, configuration,
+ * sqlite-jdbc, migrations). Le build le lance avec {@code -XX:DumpLoadedClassList}, puis construit
+ * l'archive CDS statique ({@code -Xshare:dump}) utilisée par le script {@code bin/tasks} : une
+ * archive dynamique laisserait de côté les classes de picocli. Les données de l'utilisateur ne sont
+ * pas touchées.
+ *
+ * <p>Une commande qui échoue fait échouer l'entraînement : l'archive perdrait sinon, sans bruit,
+ * les classes qu'elle aurait chargées.
+ */
+public class AppTraining {
+  private static final String TRAIN_CSV = "train.csv";
+  private static final List<String[]> COMMANDS =
+      List.of(
+          new String[] {"--help"},
+          new String[] {"add", "Préparer la démo"},
+          new String[] {"add", "Écrire le compte rendu", "Relire le plan", "--priority", "3"},
+          new String[] {"list"},
+          new String[] {"list", "--count"},
+          new String[] {"search", "demo"},
+          new String[] {"search", "re", "--ranked"},
+          new String[] {"done", "1"},
+          new String[] {"done", "--match", "plan"},
+          new String[] {"remove", "2"},
+          new String[] {"--version"},
+          new String[] {"import", TRAIN_CSV});
+
+  private AppTraining() {}
+
+  public static void run() throws Exception {
+    run(COMMANDS);
+  }
+
+  /**
+   * @param commands Arguments de chaque commande ; {@value #TRAIN_CSV} désigne un petit CSV écrit
+   *     dans le dossier temporaire
+   * @throws IllegalStateException si une commande se termine avec un code non nul
+   */
+  static void run(List<String[]> commands) throws Exception {
+    Path dir = Files.createTempDirectory("tasks-train");
+    PrintStream oldOut = System.out;
+    PrintStream oldErr = System.err;
+
+    try {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      PrintStream capture = new PrintStream(output, true, StandardCharsets.UTF_8);
+      System.setOut(capture);
+      System.setErr(capture);
+
+      String dirPath = dir.toString();
+      AppConfigRepository configRepository = new AppConfigRepository(dirPath);
+      AppConfig config = configRepository.getConfig();
+      CommandFactory factory =
+          new CommandFactory(dirPath, configRepository, config.getPragmaProfile());
+
+      Path csvPath = dir.resolve(TRAIN_CSV);
+      Files.writeString(csvPath, "description,completed\nImporter,false\n\"Avec, virgule\",true\n");
+
+      for (String[] args : commands) {
+        String[] commandArgs = args.clone();
+        for (int i = 0; i < commandArgs.length; i++) {
+          if (commandArgs[i].equals(TRAIN_CSV)) {
+            commandArgs[i] = csvPath.toString();
+          }
+        }
+        output.reset();
+        int exitCode = App.createCommandLine(factory, config).execute(commandArgs);
+        if (exitCode != 0) {
+          throw new IllegalStateException(
+              "La commande d'entraînement '"
+                  + String.join(" ", commandArgs)
+                  + "' a échoué (code "
+                  + exitCode
+                  + ") : "
+                  + output.toString(StandardCharsets.UTF_8).strip());
+        }
+      }
+    } finally {
+      System.setOut(oldOut);
+      System.setErr(oldErr);
+      ConnectionPool.closeAll();
+      deleteRecursively(dir);
+    }
+  }
+
+  private static void deleteRecursively(Path dir) throws IOException {
+    try (Stream<Path> paths = Files.walk(dir)) {
+      paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+}
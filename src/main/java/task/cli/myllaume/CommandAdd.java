@@ -1,43 +1,96 @@
 package task.cli.myllaume;
 
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
 import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
 import task.cli.myllaume.db.TaskManager;
 
-@Command(name = "add", description = "Ajouter une tâche")
+@Command(name = "add", description = "Ajouter une ou plusieurs tâches")
 public class CommandAdd implements Runnable {
-  private final TaskManager manager;
+  private final Supplier<TaskManager> manager;
 
   public CommandAdd(TaskManager manager) {
+    this(() -> manager);
+  }
+
+  public CommandAdd(Supplier<TaskManager> manager) {
     this.manager = manager;
   }
 
-  @Parameters(index = "0", description = "Nom de la tâche")
-  String description;
+  @Spec CommandSpec spec;
+
+  @Parameters(arity = "0..*", description = "Noms des tâches")
+  List<String> descriptions = new ArrayList<>();
+
+  @Option(
+      names = "--stdin",
+      description = "Lire les noms des tâches sur l'entrée standard, un par ligne")
+  boolean stdin;
 
-  @Option(names = "--completed", description = "Marquer la tâche créée comme terminée")
+  @Option(names = "--completed", description = "Marquer les tâches créées comme terminées")
   boolean completed;
 
-  @Option(names = "--priority", description = "Priorité de la tâche (1-5)", defaultValue = "1")
+  @Option(names = "--priority", description = "Priorité des tâches (1-5)", defaultValue = "1")
   int priority;
 
   @Override
   public void run() {
+    if (descriptions.isEmpty() && !stdin) {
+      // Même erreur d'usage qu'avant l'ajout de plusieurs noms : code de sortie 2
+      throw new ParameterException(
+          spec.commandLine(), "Nom de tâche manquant (ou utiliser --stdin).");
+    }
+
     try {
-      Task task =
-          manager.createTaskOnCurrentProject(
-              TaskData.of(
-                  description,
-                  completed,
-                  TaskPriority.fromLevel(priority),
-                  Instant.now(),
-                  null,
-                  null));
-      System.out.println("La tâche '" + task.toIdString() + "' a été ajoutée.");
+      List<String> names = new ArrayList<>(descriptions);
+      if (stdin) {
+        readStdin(names);
+      }
+
+      if (names.isEmpty()) {
+        System.out.println("Aucune tâche à ajouter.");
+        return;
+      }
+
+      Instant now = Instant.now();
+      TaskPriority taskPriority = TaskPriority.fromLevel(priority);
+      List<TaskData> data = new ArrayList<>(names.size());
+      for (String name : names) {
+        data.add(TaskData.of(name, completed, taskPriority, now, null, null));
+      }
+
+      if (data.size() == 1) {
+        Task task = manager.get().createTaskOnCurrentProject(data.get(0));
+        System.out.println("La tâche '" + task.toIdString() + "' a été ajoutée.");
+        return;
+      }
+
+      ArrayList<Task> tasks = manager.get().createTasksOnCurrentProject(data);
+      System.out.println(tasks.size() + " tâche(s) ajoutée(s).");
     } catch (Exception e) {
       System.out.println("La tâche n'a pas été ajoutée: " + e.getMessage());
     }
   }
+
+  /** Les lignes vides sont ignorées. */
+  private static void readStdin(List<String> names) throws Exception {
+    BufferedReader reader =
+        new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+    String line;
+    while ((line = reader.readLine()) != null) {
+      if (!line.isBlank()) {
+        names.add(line.strip());
+      }
+    }
+  }
 }
@@ -1,22 +1,27 @@
 package task.cli.myllaume;
 
+import java.util.function.Supplier;
 import picocli.CommandLine.Command;
 import task.cli.myllaume.db.ProjectsRepository;
 
-@Command(name = "done", description = "Marquer une tâche comme terminée")
+@Command(name = "clear", description = "Supprimer toutes les tâches et projets")
 public class CommandClear implements Runnable {
-  private final ProjectsRepository repo;
+  private final Supplier<ProjectsRepository> repo;
 
   public CommandClear(ProjectsRepository repo) {
+    this(() -> repo);
+  }
+
+  public CommandClear(Supplier<ProjectsRepository> repo) {
     this.repo = repo;
   }
 
   @Override
   public void run() {
     try {
-      repo.dropTables();
-      repo.initTables();
-      repo.insertDefaultProjectIfNoneExists(ProjectsRepository.defaultProjectData);
+      repo.get().dropTables();
+      repo.get().initTables();
+      repo.get().insertDefaultProjectIfNoneExists(ProjectsRepository.defaultProjectData);
       System.out.println("Toutes les tâches ont été supprimées.");
     } catch (Exception e) {
       System.out.println("Erreur lors du vidage des tâches : " + e.getMessage());
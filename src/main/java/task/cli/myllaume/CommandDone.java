@@ -1,36 +1,72 @@
 package task.cli.myllaume;
 
 import java.util.ArrayList;
+import java.util.function.Supplier;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
 import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
+import task.cli.myllaume.utils.IdRanges;
 
 @Command(name = "done", description = "Marquer une tâche comme terminée")
 public class CommandDone implements Runnable {
-  private final TaskRepositorySqlite repo;
+  private final Supplier<TaskRepositorySqlite> repo;
 
   public CommandDone(TaskRepositorySqlite repo) {
+    this(() -> repo);
+  }
+
+  public CommandDone(Supplier<TaskRepositorySqlite> repo) {
     this.repo = repo;
   }
 
-  @Parameters(index = "0", description = "Id de la tâche")
-  int id;
+  @Spec CommandSpec spec;
+
+  @Parameters(
+      index = "0",
+      arity = "0..1",
+      description = "Id de la tâche, ou liste d'ids et de plages (ex. 10-500,812)")
+  String id;
 
   @Option(names = "--last", description = "Marquer la dernière tâche ajoutée comme terminée")
   boolean completeLastAdded;
 
+  @Option(
+      names = "--match",
+      description = "Marquer comme terminées toutes les tâches correspondant à la recherche")
+  String keyword;
+
   @Override
   public void run() {
+    int targets = (id != null ? 1 : 0) + (completeLastAdded ? 1 : 0) + (keyword != null ? 1 : 0);
+    if (targets != 1) {
+      // Même erreur d'usage que quand l'id était obligatoire : code de sortie 2
+      throw new ParameterException(
+          spec.commandLine(), "Indiquer un seul choix parmi un id, --last et --match.");
+    }
+
     ArrayList<Task> tasksToComplete = new ArrayList<>();
 
     try {
       if (completeLastAdded) {
-        Task lastTask = repo.getLastTask();
+        Task lastTask = repo.get().getLastTask();
         if (lastTask != null) {
           tasksToComplete.add(lastTask);
         }
+      } else if (keyword != null) {
+        int count = repo.get().completeAllMatching(keyword);
+        System.out.println(count + " tâche(s) marquée(s) comme terminée(s).");
+        return;
       } else {
-        Task task = repo.getTask(id);
+        int[] ids = IdRanges.parse(id);
+        if (ids.length > 1) {
+          completeMany(ids);
+          return;
+        }
+
+        Task task = repo.get().getTask(ids[0]);
         if (task != null) {
           tasksToComplete.add(task);
         }
@@ -43,7 +79,7 @@ public class CommandDone implements Runnable {
 
       for (Task task : tasksToComplete) {
         if (!task.getCompleted()) {
-          repo.updateTaskCompleted(task.getId(), true);
+          repo.get().updateTaskCompleted(task.getId(), true);
           System.out.println("Tâche '" + task.toIdString() + "' marquée comme terminée.");
         } else {
           System.out.println("Tâche '" + task.toIdString() + "' est déjà terminée.");
@@ -53,4 +89,14 @@ public class CommandDone implements Runnable {
       System.out.println("Erreur lors de la mise à jour de la tâche : " + e.getMessage());
     }
   }
+
+  private void completeMany(int[] ids) throws Exception {
+    ArrayList<Task> completed = repo.get().completeTasks(ids);
+    int ignored = ids.length - completed.size();
+
+    System.out.println(completed.size() + " tâche(s) marquée(s) comme terminée(s).");
+    if (ignored > 0) {
+      System.out.println(ignored + " id(s) ignoré(s) : inconnus ou déjà terminés.");
+    }
+  }
 }
@@ -0,0 +1,114 @@
+package task.cli.myllaume;
+
+import picocli.CommandLine;
+import task.cli.myllaume.config.AppConfigRepository;
+import task.cli.myllaume.db.PragmaProfile;
+import task.cli.myllaume.db.ProjectsRepository;
+import task.cli.myllaume.db.TaskManager;
+
+/**
+ * Crée les sous-commandes de {@link App} pour picocli. Les commandes reçoivent des fournisseurs :
+ * les dépôts ne sont construits, et la base ouverte, qu'au premier appel d'une commande qui s'en
+ * sert. {@code tasks --help} et {@code tasks --version} n'y touchent pas.
+ */
+public class CommandFactory implements CommandLine.IFactory {
+  private final String dataDir;
+  private final AppConfigRepository configRepository;
+  private final PragmaProfile pragmaProfile;
+  private ProjectsRepository projectsRepository;
+  private TaskRepositorySqlite tasksRepository;
+  private TaskManager manager;
+
+  public CommandFactory(
+      String dataDir, AppConfigRepository configRepository, PragmaProfile pragmaProfile) {
+    this.dataDir = dataDir;
+    this.configRepository = configRepository;
+    this.pragmaProfile = pragmaProfile;
+  }
+
+  @Override
+  public <K> K create(Class<K> cls) throws Exception {
+    Object command;
+    if (cls == CommandList.class) {
+      command = new CommandList(this::getTasksRepository);
+    } else if (cls == CommandAdd.class) {
+      command = new CommandAdd(this::getTaskManager);
+    } else if (cls == CommandSearch.class) {
+      command = new CommandSearch(this::getTasksRepository);
+    } else if (cls == CommandRemove.class) {
+      command = new CommandRemove(this::getTasksRepository);
+    } else if (cls == CommandDone.class) {
+      command = new CommandDone(this::getTasksRepository);
+    } else if (cls == CommandClear.class) {
+      command = new CommandClear(this::getProjectsRepository);
+    } else if (cls == CommandImport.class) {
+      command = new CommandImport(this::getTaskManager);
+    } else if (cls == CommandStats.class) {
+      command = new CommandStats(this::getTasksRepository);
+    } else {
+      return CommandLine.defaultFactory().create(cls);
+    }
+    return cls.cast(command);
+  }
+
+  /**
+   * @return Vrai si {@code command} lit ou modifie la base : la première installation doit alors
+   *     réussir avant son exécution
+   */
+  public boolean needsDatabase(Object command) {
+    if (command instanceof CommandStats stats) {
+      // Les mesures des requêtes sont lues et effacées sans ouvrir la base
+      return !stats.perf && !stats.reset;
+    }
+    return command instanceof CommandList
+        || command instanceof CommandAdd
+        || command instanceof CommandSearch
+        || command instanceof CommandRemove
+        || command instanceof CommandDone
+        || command instanceof CommandClear
+        || command instanceof CommandImport;
+  }
+
+  /** Ouvre la base au premier appel et termine la première installation si besoin. */
+  public synchronized ProjectsRepository getProjectsRepository() {
+    if (projectsRepository == null) {
+      ProjectsRepository repo = new ProjectsRepository(dataDir, pragmaProfile);
+      try {
+        AppState appState = new AppState(configRepository, repo);
+        if (appState.isFirstLaunch()) {
+          appState.firstLaunchSetup();
+          System.out.println("✓ Initial configuration completed successfully");
+        }
+      } catch (Exception e) {
+        throw new IllegalStateException(
+            "Critical error during first launch: "
+                + e.getMessage()
+                + ". Please check write permissions in: "
+                + dataDir,
+            e);
+      }
+      projectsRepository = repo;
+    }
+    return projectsRepository;
+  }
+
+  public synchronized TaskRepositorySqlite getTasksRepository() {
+    if (tasksRepository == null) {
+      // Les tables sont créées avec le dépôt des projets
+      getProjectsRepository();
+      tasksRepository = new TaskRepositorySqlite(dataDir, pragmaProfile);
+    }
+    return tasksRepository;
+  }
+
+  public synchronized TaskManager getTaskManager() {
+    if (manager == null) {
+      try {
+        manager = new TaskManager(getTasksRepository(), getProjectsRepository());
+      } catch (Exception e) {
+        throw new IllegalStateException(e.getMessage(), e);
+      }
+    }
+    return manager;
+  }
+}
@@ -1,29 +1,50 @@
 package task.cli.myllaume;
 
 import java.io.File;
+import java.util.function.Supplier;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 import task.cli.myllaume.db.TaskManager;
 
 @Command(name = "import", description = "Import tasks from file")
 public class CommandImport implements Runnable {
 
-  private final TaskManager manager;
+  private final Supplier<TaskManager> manager;
 
   public CommandImport(TaskManager manager) {
+    this(() -> manager);
+  }
+
+  public CommandImport(Supplier<TaskManager> manager) {
     this.manager = manager;
   }
 
   @Parameters(index = "0", description = "Chemin du fichier CSV")
   String filePath;
 
+  @Option(
+      names = "--chunk-size",
+      description = "Nombre de lignes importées par transaction",
+      defaultValue = "" + TaskRepositorySqlite.DEFAULT_IMPORT_CHUNK_SIZE)
+  int chunkSize;
+
+  @Option(names = "--progress", description = "Affiche l'avancement après chaque lot")
+  boolean progress;
+
   @Override
   public void run() {
     try {
       throwIfFileNotExist();
       throwIfFileIsNotCsv();
 
-      int count = manager.importFromCsvOnCurrentProject(filePath);
+      ImportProgressListener listener =
+          progress
+              ? (importedCount, lineNumber) ->
+                  System.out.println(importedCount + " tâches importées (ligne " + lineNumber + ")")
+              : null;
+
+      int count = manager.get().importFromCsvOnCurrentProject(filePath, chunkSize, listener);
       System.out.println(count + " tâches ont été importées.");
     } catch (Exception e) {
       System.out.println("Les tâches n'ont pas pu être importées: " + e.getMessage());
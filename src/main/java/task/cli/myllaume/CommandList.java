@@ -1,20 +1,31 @@
 package task.cli.myllaume;
 
 import java.util.ArrayList;
+import java.util.function.Supplier;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
 @Command(name = "list", description = "Lister les tâches")
 public class CommandList implements Runnable {
-  private final TaskRepositorySqlite repo;
+  private final Supplier<TaskRepositorySqlite> repo;
 
   public CommandList(TaskRepositorySqlite repo) {
+    this(() -> repo);
+  }
+
+  public CommandList(Supplier<TaskRepositorySqlite> repo) {
     this.repo = repo;
   }
 
   @Option(names = "--count", description = "Affiche chaque tâche sur une seule ligne")
   boolean count;
 
+  @Option(names = "--after", description = "Jeton de la page précédente")
+  String after;
+
+  @Option(names = "--page-size", description = "Nombre de tâches par page", defaultValue = "10")
+  int pageSize = 10;
+
   @Override
   public void run() {
     if (count) {
@@ -25,15 +36,21 @@ public class CommandList implements Runnable {
   }
 
   private void multiline() {
-    ArrayList<Task> tasks;
+    if (pageSize <= 0) {
+      System.out.println("La taille de page doit être un entier positif.");
+      return;
+    }
+
+    TaskPage page;
 
     try {
-      tasks = repo.getTasks(10);
+      page = repo.get().getTasksPage(after, pageSize);
     } catch (Exception e) {
       System.out.println("Erreur lors de la récupération des tâches : " + e.getMessage());
       return;
     }
 
+    ArrayList<Task> tasks = page.getTasks();
     if (tasks.isEmpty()) {
       System.out.println("Aucune tâche trouvée.");
       return;
@@ -49,15 +66,18 @@ public class CommandList implements Runnable {
           String idStr = String.format("%" + maxIdWidth + "d", task.getId());
           System.out.println(idStr + ". " + task.toString());
         });
+
+    if (page.hasNext()) {
+      System.out.println("Page suivante : tasks list --after " + page.getNextToken());
+    }
   }
 
   private void count() {
 
     try {
-      int tasksDone = repo.countTasksDone();
-      int tasksTodo = repo.countTasksTodo();
+      TaskCounters counters = repo.get().getTaskCounters();
 
-      System.out.println("Done: " + tasksDone + " | To do: " + tasksTodo);
+      System.out.println("Done: " + counters.getDone() + " | To do: " + counters.getTodo());
     } catch (Exception e) {
       System.out.println("Erreur lors du comptage des tâches : " + e.getMessage());
     }
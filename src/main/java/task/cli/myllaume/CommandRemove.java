@@ -1,17 +1,26 @@
 package task.cli.myllaume;
 
+import java.util.ArrayList;
+import java.util.function.Supplier;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Parameters;
+import task.cli.myllaume.utils.IdRanges;
 
 @Command(name = "remove", description = "Retirer une tâche")
 public class CommandRemove implements Runnable {
-  private final TaskRepositorySqlite repo;
+  private final Supplier<TaskRepositorySqlite> repo;
 
   public CommandRemove(TaskRepositorySqlite repo) {
+    this(() -> repo);
+  }
+
+  public CommandRemove(Supplier<TaskRepositorySqlite> repo) {
     this.repo = repo;
   }
 
-  @Parameters(index = "0", description = "ID de la tâche")
+  @Parameters(
+      index = "0",
+      description = "ID de la tâche, ou liste d'ids et de plages (ex. 10-500,812)")
   String id;
 
   @Override
@@ -21,7 +30,14 @@ public class CommandRemove implements Runnable {
 
   private void removeTask() {
     try {
-      repo.removeTask(Integer.parseInt(id));
+      int[] ids = IdRanges.parse(id);
+      if (ids.length > 1) {
+        ArrayList<Task> removed = repo.get().removeTasks(ids);
+        System.out.println(removed.size() + " tâche(s) supprimée(s).");
+        return;
+      }
+
+      repo.get().removeTask(ids[0]);
       System.out.println("La tâche " + id + " a été supprimée.");
     } catch (Exception e) {
       System.out.println("Erreur lors de la suppression de la tâche " + id + ".");
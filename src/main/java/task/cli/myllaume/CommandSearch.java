@@ -1,15 +1,22 @@
 package task.cli.myllaume;
 
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 
 @Command(name = "search", description = "Rechercher une tâche")
 public class CommandSearch implements Runnable {
-  private final TaskRepositorySqlite repo;
+  private final Supplier<TaskRepositorySqlite> repo;
 
   public CommandSearch(TaskRepositorySqlite repo) {
+    this(() -> repo);
+  }
+
+  public CommandSearch(Supplier<TaskRepositorySqlite> repo) {
     this.repo = repo;
   }
 
@@ -28,6 +35,11 @@ public class CommandSearch implements Runnable {
       defaultValue = "100")
   int maxCount;
 
+  @Option(
+      names = {"-r", "--ranked"},
+      description = "Trier les résultats par pertinence plutôt que par nom")
+  boolean ranked;
+
   @Override
   public void run() {
     if (fulltext.trim().isEmpty()) {
@@ -41,34 +53,37 @@ public class CommandSearch implements Runnable {
       return;
     }
 
-    ArrayList<Task> tasks;
-    try {
-      tasks = repo.searchTasks(fulltext, maxCount);
+    // Seuls les résultats affichés sont gardés en mémoire, les autres sont seulement comptés
+    ArrayList<Task> tasks = new ArrayList<>();
+    int found = 0;
+    try (Stream<Task> results = repo.get().streamSearchTasks(fulltext, ranked, maxCount)) {
+      Iterator<Task> iterator = results.iterator();
+      while (iterator.hasNext()) {
+        Task task = iterator.next();
+        if (tasks.size() < maxResults) {
+          tasks.add(task);
+        }
+        found++;
+      }
     } catch (Exception e) {
       System.out.println("Erreur lors de la recherche : " + e.getMessage());
       return;
     }
 
     int maxIdWidth =
-        tasks.stream()
-            .limit(maxResults)
-            .mapToInt(task -> String.valueOf(task.getId()).length())
-            .max()
-            .orElse(1);
+        tasks.stream().mapToInt(task -> String.valueOf(task.getId()).length()).max().orElse(1);
 
-    tasks.stream()
-        .limit(maxResults)
-        .forEach(
-            task -> {
-              String idStr = String.format("%" + maxIdWidth + "d", task.getId());
-              System.out.println(idStr + ". " + task.toString());
-            });
+    tasks.forEach(
+        task -> {
+          String idStr = String.format("%" + maxIdWidth + "d", task.getId());
+          System.out.println(idStr + ". " + task.toString());
+        });
 
     System.out.println(
         "Recherche terminée. Affichage de "
-            + Math.min(maxResults, tasks.size())
-            + " résultats sur "
             + tasks.size()
+            + " résultats sur "
+            + found
             + " trouvés.");
   }
 }
@@ -0,0 +1,42 @@
+package task.cli.myllaume;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import picocli.CommandLine.Command;
+import task.cli.myllaume.daemon.DaemonServer;
+
+@Command(
+    name = "serve",
+    description =
+        "Garder l'application chargée et exécuter les commandes reçues sur une socket Unix")
+public class CommandServe implements Runnable {
+  private final Path socketPath;
+  private final DaemonServer.CommandRunner runner;
+
+  public CommandServe(Path socketPath, DaemonServer.CommandRunner runner) {
+    this.socketPath = socketPath;
+    this.runner = runner;
+  }
+
+  @Override
+  public void run() {
+    try (DaemonServer server = new DaemonServer(socketPath, runner)) {
+      server.bind();
+      Runtime.getRuntime()
+          .addShutdownHook(
+              new Thread(
+                  () -> {
+                    try {
+                      server.close();
+                    } catch (IOException e) {
+                      // Le fichier de socket sera remplacé au prochain démarrage
+                    }
+                  }));
+
+      System.out.println("En écoute sur " + socketPath);
+      server.serve();
+    } catch (IOException e) {
+      System.out.println("Erreur du serveur : " + e.getMessage());
+    }
+  }
+}
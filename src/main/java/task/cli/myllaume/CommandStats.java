@@ -0,0 +1,118 @@
+package task.cli.myllaume;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import task.cli.myllaume.db.LatencyHistogram;
+import task.cli.myllaume.db.QueryStats;
+
+@Command(name = "stats", description = "Afficher l'avancement des projets ou le temps des requêtes")
+public class CommandStats implements Runnable {
+  private static final int MAX_SQL_WIDTH = 100;
+
+  private final Supplier<TaskRepositorySqlite> repo;
+
+  public CommandStats(TaskRepositorySqlite repo) {
+    this(() -> repo);
+  }
+
+  public CommandStats(Supplier<TaskRepositorySqlite> repo) {
+    this.repo = repo;
+  }
+
+  @Option(
+      names = "--perf",
+      description = "Durées des requêtes SQL (p50, p99) depuis la remise à zéro")
+  boolean perf;
+
+  @Option(names = "--reset", description = "Effacer les mesures des requêtes SQL")
+  boolean reset;
+
+  @Override
+  public void run() {
+    if (reset) {
+      this.reset();
+    } else if (perf) {
+      this.perf();
+    } else {
+      this.progress();
+    }
+  }
+
+  private void progress() {
+    try {
+      Map<Integer, TaskCounters> counters = repo.get().getProjectTaskCounters();
+      if (counters.isEmpty()) {
+        System.out.println("Aucune tâche trouvée.");
+        return;
+      }
+
+      for (Map.Entry<Integer, TaskCounters> entry : counters.entrySet()) {
+        TaskCounters projectCounters = entry.getValue();
+        System.out.println(
+            "Projet "
+                + entry.getKey()
+                + " : "
+                + projectCounters.getDone()
+                + " terminée(s) sur "
+                + projectCounters.getTotal());
+      }
+    } catch (Exception e) {
+      System.out.println("Erreur lors du comptage des tâches : " + e.getMessage());
+    }
+  }
+
+  private void perf() {
+    if (!QueryStats.isEnabled()) {
+      System.out.println(
+          "Mesures désactivées : ajouter query_stats = on à config.properties pour les activer.");
+    }
+
+    List<QueryStats.Entry> entries;
+    try {
+      // La base n'est pas ouverte : seules les mesures déjà enregistrées sont lues
+      entries = QueryStats.load();
+    } catch (Exception e) {
+      System.out.println("Erreur lors de la lecture des mesures : " + e.getMessage());
+      return;
+    }
+
+    if (entries.isEmpty()) {
+      System.out.println("Aucune mesure enregistrée.");
+      return;
+    }
+
+    System.out.println(
+        String.format(
+            "%8s %10s %10s %10s %10s  %s",
+            "appels", "lignes/moy", "p50 ms", "p99 ms", "max ms", "requête"));
+    for (QueryStats.Entry entry : entries) {
+      LatencyHistogram histogram = entry.getHistogram();
+      String sql = entry.getSql();
+      if (sql.length() > MAX_SQL_WIDTH) {
+        sql = sql.substring(0, MAX_SQL_WIDTH - 3) + "...";
+      }
+
+      System.out.println(
+          String.format(
+              "%8d %10.1f %10.2f %10.2f %10.2f  %s",
+              histogram.getCount(),
+              (double) entry.getRows() / histogram.getCount(),
+              histogram.getValueAtPercentile(50) / 1000.0,
+              histogram.getValueAtPercentile(99) / 1000.0,
+              histogram.getMaxMicros() / 1000.0,
+              sql));
+    }
+  }
+
+  private void reset() {
+    try {
+      QueryStats.reset();
+      System.out.println("Les mesures des requêtes ont été effacées.");
+    } catch (Exception e) {
+      System.out.println("Erreur lors de l'effacement des mesures : " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package task.cli.myllaume;
+
+@FunctionalInterface
+public interface ImportProgressListener {
+  /**
+   * Appelé après chaque lot validé en base.
+   *
+   * @param importedCount nombre de tâches importées depuis le début de l'appel
+   * @param lineNumber dernière ligne du fichier CSV validée
+   */
+  void onChunkCommitted(int importedCount, int lineNumber);
+}
@@ -70,6 +70,11 @@ public class Task extends TaskData {
   }
 
   public static Task fromSqlResult(ResultSet sqlResult) throws SQLException {
+    return fromSqlResult(sqlResult, null);
+  }
+
+  public static Task fromSqlResult(ResultSet sqlResult, ArrayList<Task> subTasks)
+      throws SQLException {
     int id = sqlResult.getInt("id");
     String description = sqlResult.getString("name");
     boolean completed = sqlResult.getBoolean("completed");
@@ -98,7 +103,7 @@ public class Task extends TaskData {
         createdAt,
         dueDate,
         doneAt,
-        null);
+        subTasks);
   }
 
   public static Task of(
@@ -0,0 +1,24 @@
+package task.cli.myllaume;
+
+/** Nombre de tâches terminées et à faire, lus dans la table {@code task_counters}. */
+public class TaskCounters {
+  private final int total;
+  private final int done;
+
+  public TaskCounters(int total, int done) {
+    this.total = total;
+    this.done = done;
+  }
+
+  public int getTotal() {
+    return total;
+  }
+
+  public int getDone() {
+    return done;
+  }
+
+  public int getTodo() {
+    return total - done;
+  }
+}
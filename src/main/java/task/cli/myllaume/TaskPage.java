@@ -0,0 +1,82 @@
+package task.cli.myllaume;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Page de tâches triées par (name, id). Le jeton de continuation encode la clé de la dernière tâche
+ * de la page : la page suivante reprend juste après elle, quel que soit son rang.
+ */
+public class TaskPage {
+  private static final String tokenVersion = "1";
+
+  private final ArrayList<Task> tasks;
+  private final String nextToken;
+
+  private TaskPage(ArrayList<Task> tasks, String nextToken) {
+    this.tasks = tasks;
+    this.nextToken = nextToken;
+  }
+
+  public ArrayList<Task> getTasks() {
+    return tasks;
+  }
+
+  /**
+   * @return null s'il n'y a pas de page suivante
+   */
+  public String getNextToken() {
+    return nextToken;
+  }
+
+  public boolean hasNext() {
+    return nextToken != null;
+  }
+
+  public static TaskPage of(ArrayList<Task> tasks, String nextToken) {
+    Objects.requireNonNull(tasks, "Tasks cannot be null");
+    // nextToken can be null
+
+    return new TaskPage(tasks, nextToken);
+  }
+
+  public static String encodeToken(Task last) {
+    String raw = tokenVersion + ":" + last.getId() + ":" + last.getDescription();
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static Key decodeToken(String token) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      String[] parts = raw.split(":", 3);
+      if (parts.length != 3 || !parts[0].equals(tokenVersion)) {
+        throw new IllegalArgumentException("Jeton de pagination invalide : " + token);
+      }
+      return new Key(parts[2], Integer.parseInt(parts[1]));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Jeton de pagination invalide : " + token, e);
+    }
+  }
+
+  public static class Key {
+    private final String name;
+    private final int id;
+
+    private Key(String name, int id) {
+      this.name = name;
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public int getId() {
+      return id;
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package task.cli.myllaume;
+
+/** Avancement des sous-tâches d'une tâche, à toute profondeur. */
+public class TaskProgress {
+  private final int total;
+  private final int done;
+
+  public TaskProgress(int total, int done) {
+    this.total = total;
+    this.done = done;
+  }
+
+  /**
+   * @return Nombre de descendants, la tâche elle-même exclue
+   */
+  public int getTotal() {
+    return total;
+  }
+
+  public int getDone() {
+    return done;
+  }
+
+  /**
+   * @return Pourcentage de descendants terminés, 0 pour une tâche sans sous-tâche
+   */
+  public int getPercent() {
+    return total == 0 ? 0 : done * 100 / total;
+  }
+}
@@ -8,17 +8,37 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import task.cli.myllaume.csv.CsvColumn;
+import task.cli.myllaume.csv.CsvSchema;
+import task.cli.myllaume.csv.ParallelCsvParser;
 import task.cli.myllaume.csv.TaskCsv;
 import task.cli.myllaume.csv.TaskRepositoryCsv;
 import task.cli.myllaume.db.DatabaseRepository;
+import task.cli.myllaume.db.PragmaProfile;
+import task.cli.myllaume.db.UncheckedSQLException;
+import task.cli.myllaume.utils.IdRanges;
 import task.cli.myllaume.utils.StringUtils;
+import task.cli.myllaume.utils.Validators;
 
 public class TaskRepositorySqlite extends DatabaseRepository {
+  public static final int DEFAULT_IMPORT_CHUNK_SIZE = 10_000;
+  public static final int DEFAULT_TREE_MAX_DEPTH = 32;
+  public static final int DEFAULT_TREE_MAX_SIZE = 10_000;
 
   public TaskRepositorySqlite(String dbPath) {
     super(dbPath);
   }
 
+  public TaskRepositorySqlite(String dbPath, PragmaProfile profile) {
+    super(dbPath, profile);
+  }
+
   public Task createTask(TaskData data, int projectId) throws Exception {
 
     String sql =
@@ -65,6 +85,82 @@ public class TaskRepositorySqlite extends DatabaseRepository {
     }
   }
 
+  /**
+   * Insère les tâches en un seul lot et une seule transaction.
+   *
+   * @return Tâches créées, dans l'ordre de {@code data}
+   */
+  public ArrayList<Task> createTasks(List<TaskData> data, int projectId) throws Exception {
+    String sql =
+        """
+        INSERT INTO tasks (name, completed, fulltext, priority, due_at, done_at, created_at, project_id)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+    String selectSql =
+        """
+        SELECT id, name, completed, fulltext, priority, created_at, due_at, done_at
+        FROM tasks
+        WHERE id BETWEEN ? AND ?
+        ORDER BY id
+        """;
+
+    ArrayList<Task> tasks = new ArrayList<>(data.size());
+    if (data.isEmpty()) {
+      return tasks;
+    }
+
+    try (Connection conn = getConnection()) {
+      conn.setAutoCommit(false);
+
+      try (PreparedStatement pstmt = conn.prepareStatement(sql);
+          PreparedStatement selectPstmt = conn.prepareStatement(selectSql);
+          Statement stmt = conn.createStatement()) {
+
+        for (TaskData task : data) {
+          pstmt.setString(1, task.getDescription());
+          pstmt.setBoolean(2, task.getCompleted());
+          pstmt.setString(3, StringUtils.normalizeString(task.getDescription()));
+          pstmt.setInt(4, task.getPriority().getLevel());
+          setNullableInstant(pstmt, 5, task.getDueDate());
+          setNullableInstant(pstmt, 6, task.getCompleted() ? task.getCreatedAt() : null);
+          pstmt.setLong(7, task.getCreatedAt().getEpochSecond());
+          pstmt.setInt(8, projectId);
+          pstmt.addBatch();
+        }
+        pstmt.executeBatch();
+
+        // La transaction garde le verrou d'écriture : les ids AUTOINCREMENT du lot se suivent
+        int lastId;
+        try (ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+          rs.next();
+          lastId = rs.getInt(1);
+        }
+
+        selectPstmt.setInt(1, lastId - data.size() + 1);
+        selectPstmt.setInt(2, lastId);
+        try (ResultSet rs = selectPstmt.executeQuery()) {
+          while (rs.next()) {
+            tasks.add(Task.fromSqlResult(rs));
+          }
+        }
+
+        conn.commit();
+        return tasks;
+      } catch (SQLException e) {
+        conn.rollback();
+        if (e.getMessage() != null && e.getMessage().contains("FOREIGN KEY constraint")) {
+          throw new UnknownProjectException(projectId);
+        }
+        throw e;
+      } catch (Exception e) {
+        conn.rollback();
+        throw e;
+      } finally {
+        conn.setAutoCommit(true);
+      }
+    }
+  }
+
   public Task createSubTask(int parentId, TaskData data) throws Exception {
     String sql =
         """
@@ -149,21 +245,68 @@ public class TaskRepositorySqlite extends DatabaseRepository {
   }
 
   public ArrayList<Task> getTasks(int limit) throws Exception {
+    return collect(streamTasks(limit));
+  }
+
+  /**
+   * Parcourt les tâches triées par nom sans les charger en mémoire. Le {@code Stream} garde une
+   * connexion ouverte et doit être fermé.
+   */
+  public Stream<Task> streamTasks(int limit) throws SQLException {
     String sql =
         "SELECT id, name, completed, fulltext, priority, created_at, due_at, done_at FROM tasks ORDER BY name ASC LIMIT ?";
 
-    try (Connection conn = getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    return streamQuery(sql, pstmt -> pstmt.setInt(1, limit), Task::fromSqlResult);
+  }
 
-      pstmt.setInt(1, limit);
-      try (ResultSet rs = pstmt.executeQuery()) {
-        ArrayList<Task> tasks = new ArrayList<>();
-        while (rs.next()) {
-          tasks.add(Task.fromSqlResult(rs));
-        }
-        return tasks;
-      }
+  /**
+   * @param afterToken jeton renvoyé par la page précédente, null pour la première page
+   */
+  public TaskPage getTasksPage(String afterToken, int pageSize) throws Exception {
+    Validators.throwNullOrNegativeNumber(pageSize, "Page size must be a positive integer");
+
+    String sql;
+    if (afterToken == null) {
+      sql =
+          """
+          SELECT id, name, completed, fulltext, priority, created_at, due_at, done_at
+          FROM tasks
+          ORDER BY name ASC, id ASC
+          LIMIT ?
+          """;
+    } else {
+      sql =
+          """
+          SELECT id, name, completed, fulltext, priority, created_at, due_at, done_at
+          FROM tasks
+          WHERE (name, id) > (?, ?)
+          ORDER BY name ASC, id ASC
+          LIMIT ?
+          """;
+    }
+
+    TaskPage.Key after = afterToken == null ? null : TaskPage.decodeToken(afterToken);
+    ArrayList<Task> tasks =
+        collect(
+            streamQuery(
+                sql,
+                pstmt -> {
+                  int index = 1;
+                  if (after != null) {
+                    pstmt.setString(index++, after.getName());
+                    pstmt.setInt(index++, after.getId());
+                  }
+                  // Une ligne de plus pour savoir s'il existe une page suivante
+                  pstmt.setInt(index, pageSize + 1);
+                },
+                Task::fromSqlResult));
+
+    String nextToken = null;
+    if (tasks.size() > pageSize) {
+      tasks.remove(pageSize);
+      nextToken = TaskPage.encodeToken(tasks.get(pageSize - 1));
     }
+    return TaskPage.of(tasks, nextToken);
   }
 
   public ArrayList<Task> getProjectTasks(int projectId, int limit) throws Exception {
@@ -176,19 +319,14 @@ public class TaskRepositorySqlite extends DatabaseRepository {
         LIMIT ?
         """;
 
-    try (Connection conn = getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-      pstmt.setInt(1, projectId);
-      pstmt.setInt(2, limit);
-      try (ResultSet rs = pstmt.executeQuery()) {
-        ArrayList<Task> tasks = new ArrayList<>();
-        while (rs.next()) {
-          tasks.add(Task.fromSqlResult(rs));
-        }
-        return tasks;
-      }
-    }
+    return collect(
+        streamQuery(
+            sql,
+            pstmt -> {
+              pstmt.setInt(1, projectId);
+              pstmt.setInt(2, limit);
+            },
+            Task::fromSqlResult));
   }
 
   public ArrayList<Task> getTasksOrderByPriority(int dueInDays, int limit) throws Exception {
@@ -207,57 +345,167 @@ public class TaskRepositorySqlite extends DatabaseRepository {
             """,
             dueInDays);
 
+    return collect(streamQuery(sql, pstmt -> pstmt.setInt(1, limit), Task::fromSqlResult));
+  }
+
+  /**
+   * @param limit Nombre maximal de sous-tâches directes, par ordre alphabétique . Négatif, comme
+   *     pour le {@code LIMIT} de SQLite : pas d'autre limite que {@link #DEFAULT_TREE_MAX_SIZE}
+   */
+  public Task getTaskWithSubTasks(int id, int limit) throws Exception {
+    if (limit < 0) {
+      return getTaskTree(id, 1, DEFAULT_TREE_MAX_SIZE);
+    }
+    // + 1 pour la tâche elle-même, sans déborder pour Integer.MAX_VALUE
+    return getTaskTree(id, 1, (int) Math.min((long) limit + 1, Integer.MAX_VALUE));
+  }
+
+  public Task getTaskTree(int id) throws Exception {
+    return getTaskTree(id, DEFAULT_TREE_MAX_DEPTH, DEFAULT_TREE_MAX_SIZE);
+  }
+
+  /**
+   * Charge la tâche et toute sa descendance en une requête.
+   *
+   * @param maxDepth Profondeur maximale, 1 pour les seules sous-tâches directes
+   * @param maxSize Nombre maximal de tâches chargées, racine comprise ; les niveaux les moins
+   *     profonds sont chargés en premier
+   */
+  public Task getTaskTree(int id, int maxDepth, int maxSize) throws Exception {
+    ArrayList<Task> roots = loadTaskTrees("id = ?", id, maxDepth, maxSize);
+    if (roots.isEmpty()) {
+      throw new UnknownTaskException(id);
+    }
+    return roots.get(0);
+  }
+
+  /**
+   * Charge les tâches racines du projet avec toute leur descendance en une requête. Voir {@link
+   * #getTaskTree} pour les limites.
+   */
+  public ArrayList<Task> getProjectTaskTrees(int projectId, int maxDepth, int maxSize)
+      throws Exception {
+    return loadTaskTrees("project_id = ? AND parent_id IS NULL", projectId, maxDepth, maxSize);
+  }
+
+  /**
+   * Parcours en largeur depuis les tâches qui vérifient {@code seedCondition}, puis assemblage des
+   * arbres en mémoire en un passage : chaque ligne arrive après son parent.
+   */
+  private ArrayList<Task> loadTaskTrees(
+      String seedCondition, int seedValue, int maxDepth, int maxSize) throws Exception {
+    if (maxDepth < 0 || maxSize <= 0) {
+      throw new IllegalArgumentException("Tree limits must be positive integers");
+    }
+
+    String sql =
+        String.format(
+            """
+            WITH RECURSIVE tree(id, parent_id, name, depth) AS (
+                SELECT id, parent_id, name, 0 FROM tasks WHERE %s
+                UNION ALL
+                SELECT tasks.id, tasks.parent_id, tasks.name, tree.depth + 1
+                FROM tasks
+                JOIN tree ON tasks.parent_id = tree.id
+                WHERE tree.depth < ?
+                ORDER BY 4, 3, 1
+                LIMIT ?
+            )
+            SELECT tasks.id, tasks.name, tasks.completed, tasks.fulltext, tasks.priority,
+                tasks.created_at, tasks.due_at, tasks.done_at, tree.parent_id AS tree_parent_id,
+                tree.depth
+            FROM tree
+            JOIN tasks ON tasks.id = tree.id
+            ORDER BY tree.depth ASC, tasks.name ASC, tasks.id ASC
+            """,
+            seedCondition);
+
+    ArrayList<Task> roots = new ArrayList<>();
+    HashMap<Integer, Task> byId = new HashMap<>();
+
     try (Connection conn = getConnection();
         PreparedStatement pstmt = conn.prepareStatement(sql)) {
+      pstmt.setInt(1, seedValue);
+      pstmt.setInt(2, maxDepth);
+      pstmt.setInt(3, maxSize);
 
-      pstmt.setInt(1, limit);
       try (ResultSet rs = pstmt.executeQuery()) {
-        ArrayList<Task> tasks = new ArrayList<>();
         while (rs.next()) {
-          tasks.add(Task.fromSqlResult(rs));
+          Task task = Task.fromSqlResult(rs, new ArrayList<>());
+          byId.put(task.getId(), task);
+
+          Task parent = rs.getInt("depth") == 0 ? null : byId.get(rs.getInt("tree_parent_id"));
+          if (parent == null) {
+            roots.add(task);
+          } else {
+            parent.getSubTasks().add(task);
+          }
         }
-        return tasks;
       }
     }
+
+    return roots;
   }
 
-  public Task getTaskWithSubTasks(int id, int limit) throws Exception {
-    Task parentTask = getTask(id);
-    if (parentTask == null) {
-      throw new UnknownTaskException(id);
-    }
+  /**
+   * @return Nombre de sous-tâches de la tâche à toute profondeur, lu dans {@code task_closure}
+   */
+  public int countDescendants(int id) throws Exception {
+    return getSubtreeProgress(id).getTotal();
+  }
 
-    String subTaskSql =
+  public TaskProgress getSubtreeProgress(int id) throws Exception {
+    // La ligne de profondeur 0 (la tâche elle-même) n'existe que si la tâche existe
+    String sql =
         """
-          SELECT id, name, completed, fulltext, priority, created_at, due_at, done_at
-          FROM tasks
-          WHERE parent_id = ?
-          ORDER BY name ASC LIMIT ?
-          """;
+        SELECT
+            COUNT(*) AS found,
+            COALESCE(SUM(task_closure.depth > 0), 0) AS total,
+            COALESCE(SUM(task_closure.depth > 0 AND tasks.completed = 1), 0) AS done
+        FROM task_closure
+        JOIN tasks ON tasks.id = task_closure.descendant
+        WHERE task_closure.ancestor = ?
+        """;
+
     try (Connection conn = getConnection();
-        PreparedStatement subPstmt = conn.prepareStatement(subTaskSql)) {
+        PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-      subPstmt.setInt(1, id);
-      subPstmt.setInt(2, limit);
-      try (ResultSet rs = subPstmt.executeQuery()) {
-        ArrayList<Task> subTasks = new ArrayList<>();
-        while (rs.next()) {
-          subTasks.add(Task.fromSqlResult(rs));
+      pstmt.setInt(1, id);
+      try (ResultSet rs = pstmt.executeQuery()) {
+        if (!rs.next() || rs.getInt("found") == 0) {
+          throw new UnknownTaskException(id);
         }
-        return Task.of(
-            parentTask.getId(),
-            parentTask.getDescription(),
-            parentTask.getCompleted(),
-            parentTask.getFulltext(),
-            parentTask.getPriority(),
-            parentTask.getCreatedAt(),
-            parentTask.getDueDate(),
-            parentTask.getDoneAt(),
-            subTasks);
+        return new TaskProgress(rs.getInt("total"), rs.getInt("done"));
       }
     }
   }
 
+  /**
+   * @return Tâches non terminées du projet qui n'ont aucune sous-tâche, triées par nom
+   */
+  public ArrayList<Task> getOpenLeaves(int projectId, int limit) throws Exception {
+    String sql =
+        """
+        SELECT id, name, completed, fulltext, priority, created_at, due_at, done_at
+        FROM tasks
+        WHERE project_id = ? AND completed = 0
+        AND NOT EXISTS (
+            SELECT 1 FROM task_closure WHERE task_closure.ancestor = tasks.id AND task_closure.depth = 1
+        )
+        ORDER BY name, id
+        LIMIT ?
+        """;
+
+    return collect(
+        streamQuery(
+            sql,
+            pstmt -> {
+              pstmt.setInt(1, projectId);
+              pstmt.setInt(2, limit);
+            },
+            Task::fromSqlResult));
+  }
+
   public Task getLastTask() throws Exception {
     String sql =
         """
@@ -279,56 +527,71 @@ public class TaskRepositorySqlite extends DatabaseRepository {
     }
   }
 
-  private ArrayList<Task> searchTasksProcess(String keyword, int limit, String sql)
-      throws Exception {
-    try (Connection conn = getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(sql)) {
+  private Stream<Task> streamSearchTasksProcess(
+      String keyword, String filter, boolean ranked, int limit) throws SQLException {
+    keyword = StringUtils.normalizeString(keyword);
+
+    String sql;
+    String pattern;
+    if (isFulltextSearchable(keyword)) {
+      sql =
+          String.format(
+              """
+              SELECT tasks.id, tasks.name, tasks.completed, tasks.fulltext, tasks.priority,
+                  tasks.created_at, tasks.due_at, tasks.done_at
+              FROM tasks_fts
+              JOIN tasks ON tasks.id = tasks_fts.rowid
+              WHERE tasks_fts MATCH ? AND tasks.parent_id IS NULL %s
+              ORDER BY %s LIMIT ?
+              """,
+              filter, ranked ? "bm25(tasks_fts) ASC, tasks.name ASC" : "tasks.name ASC");
+      pattern = toFulltextQuery(keyword);
+    } else {
+      sql =
+          String.format(
+              """
+              SELECT id, name, completed, fulltext, priority, created_at, due_at, done_at
+              FROM tasks
+              WHERE tasks.fulltext LIKE ? AND tasks.parent_id IS NULL %s
+              ORDER BY name ASC LIMIT ?
+              """,
+              filter);
+      pattern = "%" + keyword + "%";
+    }
 
-      keyword = StringUtils.normalizeString(keyword);
+    String param = pattern;
+    return streamQuery(
+        sql,
+        pstmt -> {
+          pstmt.setString(1, param);
+          pstmt.setInt(2, limit);
+        },
+        Task::fromSqlResult);
+  }
 
-      pstmt.setString(1, "%" + keyword + "%");
-      pstmt.setInt(2, limit);
-      try (ResultSet rs = pstmt.executeQuery()) {
-        ArrayList<Task> tasks = new ArrayList<>();
-        while (rs.next()) {
-          tasks.add(Task.fromSqlResult(rs));
-        }
-        return tasks;
-      }
-    }
+  /**
+   * Version en flux de {@link #searchTasks} et {@link #searchTasksRanked}. Le {@code Stream} garde
+   * une connexion ouverte et doit être fermé.
+   */
+  public Stream<Task> streamSearchTasks(String keyword, boolean ranked, int limit)
+      throws SQLException {
+    return streamSearchTasksProcess(keyword, "", ranked, limit);
   }
 
   public ArrayList<Task> searchTasks(String keyword, int limit) throws Exception {
-    String sql =
-        """
-        SELECT id, name, completed, fulltext, priority, created_at, due_at, done_at
-        FROM tasks
-        WHERE fulltext LIKE ? AND parent_id IS NULL
-        ORDER BY name ASC LIMIT ?
-        """;
-    return searchTasksProcess(keyword, limit, sql);
+    return collect(streamSearchTasksProcess(keyword, "", false, limit));
+  }
+
+  public ArrayList<Task> searchTasksRanked(String keyword, int limit) throws Exception {
+    return collect(streamSearchTasksProcess(keyword, "", true, limit));
   }
 
   public ArrayList<Task> searchTasksTodo(String keyword, int limit) throws Exception {
-    String sql =
-        """
-        SELECT id, name, completed, fulltext, priority, created_at, due_at, done_at
-        FROM tasks
-        WHERE fulltext LIKE ? AND completed = 0 AND parent_id IS NULL
-        ORDER BY name ASC LIMIT ?
-        """;
-    return searchTasksProcess(keyword, limit, sql);
+    return collect(streamSearchTasksProcess(keyword, "AND tasks.completed = 0", false, limit));
   }
 
   public ArrayList<Task> searchTasksDone(String keyword, int limit) throws Exception {
-    String sql =
-        """
-        SELECT id, name, completed, fulltext, priority, created_at, due_at, done_at
-        FROM tasks
-        WHERE fulltext LIKE ? AND completed = 1 AND parent_id IS NULL
-        ORDER BY name ASC LIMIT ?
-        """;
-    return searchTasksProcess(keyword, limit, sql);
+    return collect(streamSearchTasksProcess(keyword, "AND tasks.completed = 1", false, limit));
   }
 
   public Task updateTaskName(int id, String name) throws Exception {
@@ -435,77 +698,299 @@ public class TaskRepositorySqlite extends DatabaseRepository {
     return this.url;
   }
 
-  private int executeCountQuery(String sql) throws Exception {
+  /**
+   * Marque comme terminées, en une seule requête, les tâches de {@code ids} qui ne l'étaient pas.
+   * Les ids inconnus sont ignorés.
+   *
+   * @return Les tâches modifiées
+   */
+  public ArrayList<Task> completeTasks(int[] ids) throws Exception {
+    String sql =
+        """
+        UPDATE tasks SET completed = 1, done_at = ?
+        WHERE id IN (SELECT value FROM json_each(?)) AND completed = 0
+        RETURNING id, name, completed, fulltext, priority, created_at, due_at, done_at
+        """;
+    long now = Instant.now().getEpochSecond();
+    return collect(
+        streamQuery(
+            sql,
+            pstmt -> {
+              pstmt.setLong(1, now);
+              pstmt.setString(2, IdRanges.toJson(ids));
+            },
+            Task::fromSqlResult));
+  }
+
+  /**
+   * Supprime en une seule requête les tâches de {@code ids}, avec leurs sous-tâches. Les ids
+   * inconnus sont ignorés.
+   *
+   * @return Les tâches supprimées, sans les sous-tâches supprimées en cascade
+   */
+  public ArrayList<Task> removeTasks(int[] ids) throws Exception {
+    String sql =
+        """
+        DELETE FROM tasks WHERE id IN (SELECT value FROM json_each(?))
+        RETURNING id, name, completed, fulltext, priority, created_at, due_at, done_at
+        """;
+    return collect(
+        streamQuery(sql, pstmt -> pstmt.setString(1, IdRanges.toJson(ids)), Task::fromSqlResult));
+  }
+
+  /**
+   * @return Nombre de tâches modifiées
+   */
+  public int updatePriority(int[] ids, TaskPriority priority) throws Exception {
+    String sql = "UPDATE tasks SET priority = ? WHERE id IN (SELECT value FROM json_each(?))";
+    try (Connection conn = getConnection();
+        PreparedStatement pstmt = conn.prepareStatement(sql)) {
+      pstmt.setInt(1, priority.getLevel());
+      pstmt.setString(2, IdRanges.toJson(ids));
+      return pstmt.executeUpdate();
+    }
+  }
+
+  /**
+   * Marque comme terminées toutes les tâches, sous-tâches comprises, qu'une recherche sur {@code
+   * keyword} trouverait.
+   *
+   * @return Nombre de tâches modifiées
+   */
+  public int completeAllMatching(String keyword) throws Exception {
+    keyword = StringUtils.normalizeString(keyword);
+
+    String sql;
+    String pattern;
+    if (isFulltextSearchable(keyword)) {
+      sql =
+          """
+          UPDATE tasks SET completed = 1, done_at = ?
+          WHERE completed = 0 AND id IN (SELECT rowid FROM tasks_fts WHERE tasks_fts MATCH ?)
+          """;
+      pattern = toFulltextQuery(keyword);
+    } else {
+      sql =
+          """
+          UPDATE tasks SET completed = 1, done_at = ?
+          WHERE completed = 0 AND fulltext LIKE ?
+          """;
+      pattern = "%" + keyword + "%";
+    }
+
+    try (Connection conn = getConnection();
+        PreparedStatement pstmt = conn.prepareStatement(sql)) {
+      pstmt.setLong(1, Instant.now().getEpochSecond());
+      pstmt.setString(2, pattern);
+      return pstmt.executeUpdate();
+    }
+  }
+
+  private static ArrayList<Task> collect(Stream<Task> tasks) throws SQLException {
+    try (tasks) {
+      return tasks.collect(Collectors.toCollection(ArrayList::new));
+    } catch (UncheckedSQLException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * @return Compteurs de toutes les tâches, sommés sur les projets
+   */
+  public TaskCounters getTaskCounters() throws Exception {
+    String sql =
+        """
+        SELECT COALESCE(SUM(total), 0) AS total, COALESCE(SUM(done), 0) AS done
+        FROM task_counters
+        """;
+
     try (Connection conn = getConnection();
         Statement stmt = conn.createStatement();
         ResultSet rs = stmt.executeQuery(sql)) {
 
-      if (rs.next()) {
-        return rs.getInt("total");
-      } else {
-        return 0;
+      rs.next();
+      return new TaskCounters(rs.getInt("total"), rs.getInt("done"));
+    }
+  }
+
+  /**
+   * @return Compteurs de chaque projet qui a eu au moins une tâche, par id de projet
+   */
+  public Map<Integer, TaskCounters> getProjectTaskCounters() throws Exception {
+    String sql = "SELECT project_id, total, done FROM task_counters ORDER BY project_id";
+
+    try (Connection conn = getConnection();
+        Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery(sql)) {
+
+      Map<Integer, TaskCounters> counters = new LinkedHashMap<>();
+      while (rs.next()) {
+        counters.put(
+            rs.getInt("project_id"), new TaskCounters(rs.getInt("total"), rs.getInt("done")));
       }
+      return counters;
     }
   }
 
   public int countTasks() throws Exception {
-    return executeCountQuery("SELECT COUNT(*) AS total FROM tasks");
+    return getTaskCounters().getTotal();
   }
 
   public int countTasksTodo() throws Exception {
-    return executeCountQuery("SELECT COUNT(*) AS total FROM tasks WHERE completed = 0");
+    return getTaskCounters().getTodo();
   }
 
   public int countTasksDone() throws Exception {
-    return executeCountQuery("SELECT COUNT(*) AS total FROM tasks WHERE completed = 1");
+    return getTaskCounters().getDone();
   }
 
   /**
    * @return Count of inserted tasks
    */
   public int importFromCsv(String csvPath, int projectId) throws Exception {
-    ArrayList<TaskCsv> tasks;
-    int count = 0;
+    return importFromCsv(csvPath, projectId, DEFAULT_IMPORT_CHUNK_SIZE, null);
+  }
+
+  /**
+   * Import en flux : les lignes sont analysées en parallèle par {@link ParallelCsvParser} et
+   * insérées par ce seul thread, une transaction par lot de {@code chunkSize} lignes. Chaque lot
+   * enregistre la dernière ligne importée dans {@code csv_imports}, dans la même transaction, pour
+   * qu'un import interrompu reprenne là où il s'est arrêté si le fichier n'a pas changé.
+   *
+   * @return Count of tasks inserted by this call
+   */
+  public int importFromCsv(
+      String csvPath, int projectId, int chunkSize, ImportProgressListener listener)
+      throws Exception {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be a positive integer");
+    }
 
+    TaskRepositoryCsv repo;
     try {
-      TaskRepositoryCsv repo = TaskRepositoryCsv.of(csvPath);
-      tasks = repo.getTasks();
+      repo = TaskRepositoryCsv.of(csvPath);
+      repo.validate();
     } catch (Exception e) {
       throw new Exception("Le fichier CSV contient des erreurs, l'import est annulé.");
     }
 
-    Instant now = Instant.now();
+    File file = new File(repo.getFilePath());
+    String path = file.getAbsolutePath();
+    long fileSize = file.length();
+    long fileModifiedAt = file.lastModified();
 
-    
+    Instant now = Instant.now();
+    int count = 0;
+    int pending = 0;
 
     String sql =
         """
-        INSERT INTO tasks (name, completed, fulltext, created_at, due_at, priority, project_id)
-        VALUES (?, ?, ?, ?, ?, ?, ?)
+        INSERT INTO tasks (name, completed, fulltext, created_at, due_at, done_at, priority, project_id)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+    String idsSql =
+        """
+        INSERT OR REPLACE INTO csv_import_ids (path, source_id, task_id, parent_source_id)
+        VALUES (?, ?, last_insert_rowid(), ?)
         """;
     try (Connection conn = getConnection()) {
+      int lastLine = getImportCheckpoint(conn, path, projectId, fileSize, fileModifiedAt);
+      if (lastLine == 0) {
+        deleteImportIds(conn, path);
+      }
       conn.setAutoCommit(false);
 
-      try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-        for (TaskCsv task : tasks) {
-          pstmt.setString(1, task.getDescription());
-          pstmt.setBoolean(2, task.getCompleted());
-          pstmt.setString(3, StringUtils.normalizeString(task.getDescription()));
-          pstmt.setLong(4, now.getEpochSecond());
-          if (task.getCompleted()) {
-            pstmt.setLong(5, now.getEpochSecond());
-          } else {
-            pstmt.setNull(5, java.sql.Types.INTEGER);
+      // La normalisation du texte intégral se fait sur les workers, ce thread ne fait qu'insérer
+      try (ParallelCsvParser<ImportRow> parser =
+              repo.openParallelReader(
+                  task ->
+                      task.getId() <= lastLine
+                          ? null
+                          : new ImportRow(task, StringUtils.normalizeString(task.getDescription())),
+                  ParallelCsvParser.DEFAULT_THREADS);
+          PreparedStatement pstmt = conn.prepareStatement(sql);
+          PreparedStatement idsStmt = conn.prepareStatement(idsSql)) {
+        // Avec une colonne id, chaque tâche insérée est associée à son id dans le fichier pour
+        // rattacher les parents à la fin ; last_insert_rowid() interdit alors les lots
+        boolean linkParents = parser.getSchema().has(CsvColumn.ID);
+        HashMap<String, Integer> projectIds = new HashMap<>();
+        int lineNumber = lastLine;
+
+        while (parser.hasNext()) {
+          ParallelCsvParser.Chunk<ImportRow> chunk = parser.next();
+          if (!chunk.getErrors().isEmpty()) {
+            throw new Exception("Le fichier CSV contient des erreurs, l'import est annulé.");
+          }
+
+          for (ImportRow row : chunk.getRows()) {
+            TaskCsv task = row.task;
+            Instant createdAt = task.getCreatedAt() != null ? task.getCreatedAt() : now;
+            Instant doneAt = task.getDoneAt();
+            if (doneAt == null && task.getCompleted()) {
+              doneAt = now;
+            }
+            TaskPriority priority =
+                task.getPriority() != null ? task.getPriority() : TaskPriority.LOW;
+
+            pstmt.setString(1, task.getDescription());
+            pstmt.setBoolean(2, task.getCompleted());
+            pstmt.setString(3, row.fulltext);
+            pstmt.setLong(4, createdAt.getEpochSecond());
+            setNullableInstant(pstmt, 5, task.getDueAt());
+            setNullableInstant(pstmt, 6, doneAt);
+            pstmt.setInt(7, priority.getLevel());
+            pstmt.setInt(8, resolveProjectId(conn, task.getProject(), projectId, projectIds));
+
+            if (linkParents) {
+              pstmt.executeUpdate();
+              if (task.getSourceId() != null) {
+                idsStmt.setString(1, path);
+                idsStmt.setInt(2, task.getSourceId());
+                if (task.getParentId() == null) {
+                  idsStmt.setNull(3, java.sql.Types.INTEGER);
+                } else {
+                  idsStmt.setInt(3, task.getParentId());
+                }
+                idsStmt.executeUpdate();
+              }
+            } else {
+              pstmt.addBatch();
+            }
+
+            lineNumber = task.getId();
+            pending++;
+
+            if (pending == chunkSize) {
+              pstmt.executeBatch();
+              saveImportCheckpoint(conn, path, projectId, fileSize, fileModifiedAt, lineNumber);
+              conn.commit();
+              count += pending;
+              pending = 0;
+              if (listener != null) {
+                listener.onChunkCommitted(count, lineNumber);
+              }
+            }
           }
-          pstmt.setInt(6, TaskPriority.LOW.getLevel());
-          pstmt.setInt(7, projectId);
-          pstmt.addBatch();
-          
-          count++;
         }
+
         pstmt.executeBatch();
+        if (linkParents) {
+          linkImportedParents(conn, path);
+          deleteImportIds(conn, path);
+        }
+        deleteImportCheckpoint(conn, path);
         conn.commit();
+        count += pending;
+        if (listener != null && pending > 0) {
+          listener.onChunkCommitted(count, lineNumber);
+        }
 
+      } catch (SQLException e) {
+        conn.rollback();
+        if (e.getMessage() != null && e.getMessage().contains("FOREIGN KEY constraint")) {
+          throw new UnknownProjectException(projectId);
+        }
+        throw e;
       } catch (Exception e) {
         conn.rollback();
         throw e;
@@ -517,17 +1002,195 @@ public class TaskRepositorySqlite extends DatabaseRepository {
     return count;
   }
 
+  private static void setNullableInstant(PreparedStatement pstmt, int index, Instant value)
+      throws SQLException {
+    if (value == null) {
+      pstmt.setNull(index, java.sql.Types.INTEGER);
+    } else {
+      pstmt.setLong(index, value.getEpochSecond());
+    }
+  }
+
+  /** Retrouve le projet par son nom, ou le crée. Sans nom, la tâche va dans {@code defaultId}. */
+  private int resolveProjectId(
+      Connection conn, String name, int defaultId, Map<String, Integer> cache) throws SQLException {
+    if (name == null) {
+      return defaultId;
+    }
+
+    Integer cached = cache.get(name);
+    if (cached != null) {
+      return cached;
+    }
+
+    int id;
+    try (PreparedStatement pstmt =
+        conn.prepareStatement("SELECT id FROM projects WHERE name = ?")) {
+      pstmt.setString(1, name);
+      try (ResultSet rs = pstmt.executeQuery()) {
+        id = rs.next() ? rs.getInt("id") : -1;
+      }
+    }
+
+    if (id == -1) {
+      String sql =
+          """
+          INSERT INTO projects (name, fulltext, created_at)
+          VALUES (?, ?, ?)
+          RETURNING id
+          """;
+      try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        pstmt.setString(1, name);
+        pstmt.setString(2, StringUtils.normalizeString(name));
+        pstmt.setLong(3, Instant.now().getEpochSecond());
+        try (ResultSet rs = pstmt.executeQuery()) {
+          rs.next();
+          id = rs.getInt("id");
+        }
+      }
+    }
+
+    cache.put(name, id);
+    return id;
+  }
+
+  /** Rattache chaque tâche importée au parent désigné par sa colonne {@code parent_id}. */
+  private void linkImportedParents(Connection conn, String path) throws SQLException {
+    String sql =
+        """
+        UPDATE tasks SET parent_id = parent.task_id
+        FROM csv_import_ids AS child
+        JOIN csv_import_ids AS parent
+            ON parent.path = child.path AND parent.source_id = child.parent_source_id
+        WHERE child.path = ? AND child.task_id = tasks.id
+        """;
+    try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+      pstmt.setString(1, path);
+      pstmt.executeUpdate();
+    }
+  }
+
+  private void deleteImportIds(Connection conn, String path) throws SQLException {
+    try (PreparedStatement pstmt =
+        conn.prepareStatement("DELETE FROM csv_import_ids WHERE path = ?")) {
+      pstmt.setString(1, path);
+      pstmt.executeUpdate();
+    }
+  }
+
+  private static class ImportRow {
+    private final TaskCsv task;
+    private final String fulltext;
+
+    ImportRow(TaskCsv task, String fulltext) {
+      this.task = task;
+      this.fulltext = fulltext;
+    }
+  }
+
+  /**
+   * @return Dernière ligne importée, ou 0 si aucun import de ce fichier n'est à reprendre
+   */
+  private int getImportCheckpoint(
+      Connection conn, String path, int projectId, long fileSize, long fileModifiedAt)
+      throws SQLException {
+    String sql =
+        """
+        SELECT last_line FROM csv_imports
+        WHERE path = ? AND project_id = ? AND file_size = ? AND file_modified_at = ?
+        """;
+    try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+      pstmt.setString(1, path);
+      pstmt.setInt(2, projectId);
+      pstmt.setLong(3, fileSize);
+      pstmt.setLong(4, fileModifiedAt);
+
+      try (ResultSet rs = pstmt.executeQuery()) {
+        return rs.next() ? rs.getInt("last_line") : 0;
+      }
+    }
+  }
+
+  private void saveImportCheckpoint(
+      Connection conn, String path, int projectId, long fileSize, long fileModifiedAt, int lastLine)
+      throws SQLException {
+    String sql =
+        """
+        INSERT INTO csv_imports (path, project_id, file_size, file_modified_at, last_line)
+        VALUES (?, ?, ?, ?, ?)
+        ON CONFLICT(path) DO UPDATE SET
+            project_id = excluded.project_id,
+            file_size = excluded.file_size,
+            file_modified_at = excluded.file_modified_at,
+            last_line = excluded.last_line
+        """;
+    try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+      pstmt.setString(1, path);
+      pstmt.setInt(2, projectId);
+      pstmt.setLong(3, fileSize);
+      pstmt.setLong(4, fileModifiedAt);
+      pstmt.setInt(5, lastLine);
+      pstmt.executeUpdate();
+    }
+  }
+
+  private void deleteImportCheckpoint(Connection conn, String path) throws SQLException {
+    try (PreparedStatement pstmt =
+        conn.prepareStatement("DELETE FROM csv_imports WHERE path = ?")) {
+      pstmt.setString(1, path);
+      pstmt.executeUpdate();
+    }
+  }
+
   public void exportToCsv(String csvPath, int limit, boolean overwrite) throws Exception {
-    ArrayList<Task> tasks = getTasks(limit);
+    exportToCsv(csvPath, limit, overwrite, CsvSchema.V1);
+  }
 
+  /**
+   * Exporte au plus {@code limit} tâches avec les colonnes de {@code schema}. Un schéma avec la
+   * colonne {@code id} exporte dans l'ordre des ids, pour que l'import recrée la même hiérarchie.
+   */
+  public void exportToCsv(String csvPath, int limit, boolean overwrite, CsvSchema schema)
+      throws Exception {
     File csvFile = new File(csvPath);
 
-    TaskRepositoryCsv repo = TaskRepositoryCsv.of(csvFile.getAbsolutePath());
-    repo.init(overwrite);
+    TaskRepositoryCsv repo = TaskRepositoryCsv.of(csvFile.getAbsolutePath(), schema);
 
-    for (Task task : tasks) {
-      TaskCsv taskCsv = new TaskCsv(task.getId(), task.getDescription(), task.getCompleted());
-      repo.addLineAtEnd(taskCsv);
+    String order = schema.has(CsvColumn.ID) ? "tasks.id ASC" : "tasks.name ASC";
+    String sql =
+        """
+        SELECT tasks.id, tasks.name, tasks.completed, tasks.priority, tasks.created_at,
+            tasks.due_at, tasks.done_at, tasks.parent_id, projects.name AS project_name
+        FROM tasks
+        JOIN projects ON projects.id = tasks.project_id
+        ORDER BY %s
+        LIMIT ?
+        """
+            .formatted(order);
+
+    try (Stream<TaskCsv> tasks =
+        streamQuery(sql, pstmt -> pstmt.setInt(1, limit), TaskRepositorySqlite::toTaskCsv)) {
+      repo.writeAll(tasks.iterator(), overwrite);
+    } catch (UncheckedSQLException e) {
+      throw e.getCause();
     }
   }
+
+  private static TaskCsv toTaskCsv(ResultSet rs) throws SQLException {
+    TaskCsv task = new TaskCsv(rs.getInt("id"), rs.getString("name"), rs.getBoolean("completed"));
+    task.setSourceId(rs.getInt("id"));
+    task.setPriority(TaskPriority.fromLevel(rs.getInt("priority")));
+    task.setCreatedAt(Instant.ofEpochSecond(rs.getLong("created_at")));
+    task.setDueAt(getNullableInstant(rs, "due_at"));
+    task.setDoneAt(getNullableInstant(rs, "done_at"));
+    task.setProject(rs.getString("project_name"));
+    int parentId = rs.getInt("parent_id");
+    task.setParentId(rs.wasNull() ? null : parentId);
+    return task;
+  }
+
+  private static Instant getNullableInstant(ResultSet rs, String column) throws SQLException {
+    long value = rs.getLong(column);
+    return rs.wasNull() ? null : Instant.ofEpochSecond(value);
+  }
 }
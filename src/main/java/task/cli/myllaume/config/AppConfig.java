@@ -1,13 +1,133 @@
 package task.cli.myllaume.config;
 
+import java.util.Map;
+import task.cli.myllaume.db.ConnectionPool;
+import task.cli.myllaume.db.PragmaProfile;
+import task.cli.myllaume.db.QueryStats;
+
 public class AppConfig {
   private final String version;
+  private final PragmaProfile pragmaProfile;
+  private final int poolSize;
+  private final int cacheSizeKib;
+  private final Map<String, String> optionDefaults;
+  private final long slowQueryMillis;
+  private final boolean queryStats;
 
   public AppConfig(String version) {
+    this(version, PragmaProfile.DURABLE);
+  }
+
+  public AppConfig(String version, PragmaProfile pragmaProfile) {
+    this(version, pragmaProfile, ConnectionPool.DEFAULT_MAX_SIZE, 0, Map.of());
+  }
+
+  public AppConfig(
+      String version,
+      PragmaProfile pragmaProfile,
+      int poolSize,
+      int cacheSizeKib,
+      Map<String, String> optionDefaults) {
+    this(
+        version,
+        pragmaProfile,
+        poolSize,
+        cacheSizeKib,
+        optionDefaults,
+        QueryStats.DEFAULT_SLOW_QUERY_MILLIS);
+  }
+
+  public AppConfig(
+      String version,
+      PragmaProfile pragmaProfile,
+      int poolSize,
+      int cacheSizeKib,
+      Map<String, String> optionDefaults,
+      long slowQueryMillis) {
+    this(version, pragmaProfile, poolSize, cacheSizeKib, optionDefaults, slowQueryMillis, false);
+  }
+
+  public AppConfig(
+      String version,
+      PragmaProfile pragmaProfile,
+      int poolSize,
+      int cacheSizeKib,
+      Map<String, String> optionDefaults,
+      long slowQueryMillis,
+      boolean queryStats) {
     this.version = version;
+    this.pragmaProfile = pragmaProfile;
+    this.poolSize = poolSize;
+    this.cacheSizeKib = cacheSizeKib;
+    this.optionDefaults = Map.copyOf(optionDefaults);
+    this.slowQueryMillis = slowQueryMillis;
+    this.queryStats = queryStats;
   }
 
   public String getVersion() {
     return version;
   }
+
+  public PragmaProfile getPragmaProfile() {
+    return pragmaProfile;
+  }
+
+  /**
+   * @return Nombre maximal de connexions SQLite ouvertes en même temps
+   */
+  public int getPoolSize() {
+    return poolSize;
+  }
+
+  /**
+   * @return Taille du cache de pages SQLite en Kio, 0 pour garder celle du profil de pragmas
+   */
+  public int getCacheSizeKib() {
+    return cacheSizeKib;
+  }
+
+  /**
+   * @return Valeurs par défaut des options, par clé {@code commande.option} (par exemple {@code
+   *     list.page-size})
+   */
+  public Map<String, String> getOptionDefaults() {
+    return optionDefaults;
+  }
+
+  /**
+   * @return Durée en millisecondes au-delà de laquelle une requête est journalisée, 0 pour ne pas
+   *     tenir le journal
+   */
+  public long getSlowQueryMillis() {
+    return slowQueryMillis;
+  }
+
+  /**
+   * @return Vrai si les requêtes SQL sont mesurées pour {@code tasks stats --perf}
+   */
+  public boolean isQueryStatsEnabled() {
+    return queryStats;
+  }
+
+  public AppConfig withVersion(String version) {
+    return new AppConfig(
+        version,
+        pragmaProfile,
+        poolSize,
+        cacheSizeKib,
+        optionDefaults,
+        slowQueryMillis,
+        queryStats);
+  }
+
+  public AppConfig withPragmaProfile(PragmaProfile pragmaProfile) {
+    return new AppConfig(
+        version,
+        pragmaProfile,
+        poolSize,
+        cacheSizeKib,
+        optionDefaults,
+        slowQueryMillis,
+        queryStats);
+  }
 }
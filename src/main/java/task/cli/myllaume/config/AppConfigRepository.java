@@ -1,58 +1,191 @@
 package task.cli.myllaume.config;
 
+import java.io.BufferedReader;
 import java.io.File;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import task.cli.myllaume.db.ConnectionPool;
+import task.cli.myllaume.db.PragmaProfile;
+import task.cli.myllaume.db.QueryStats;
 
+/**
+ * Fichier {@code config.properties} : une ligne {@code clé = valeur} par réglage, les lignes vides
+ * et celles qui commencent par {@code #} sont ignorées. Il est lu ligne à ligne au premier accès
+ * seulement, puis gardé en mémoire.
+ *
+ * <pre>
+ * version = 1.0
+ * pragma_profile = fast
+ * pool_size = 4
+ * cache_size_kib = 65536
+ * slow_query_ms = 100
+ * query_stats = on
+ * default.list.page-size = 25
+ * </pre>
+ *
+ * Un ancien {@code config.xml} est converti au premier accès.
+ */
 public class AppConfigRepository {
+  private static final String DEFAULT_PREFIX = "default.";
+  private static final Pattern LEGACY_VERSION = Pattern.compile("<version>([^<]*)</version>");
+  private static final Pattern LEGACY_PROFILE =
+      Pattern.compile("<pragmaProfile>([^<]*)</pragmaProfile>");
+
   public final String filePath;
+  private final String legacyFilePath;
+  private AppConfig config;
 
   public AppConfigRepository(String dirPath) {
-    this.filePath = dirPath + "/config.xml";
+    this.filePath = dirPath + "/config.properties";
+    this.legacyFilePath = dirPath + "/config.xml";
   }
 
   private AppConfig read() throws Exception {
-    DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-    DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-    Document doc = dBuilder.parse(new File(filePath));
-    doc.getDocumentElement().normalize();
+    if (config != null) {
+      return config;
+    }
+
+    Path path = Path.of(filePath);
+    if (!Files.exists(path) && Files.exists(Path.of(legacyFilePath))) {
+      migrateLegacyFile();
+      return config;
+    }
+
+    String version = null;
+    PragmaProfile pragmaProfile = PragmaProfile.DURABLE;
+    int poolSize = ConnectionPool.DEFAULT_MAX_SIZE;
+    int cacheSizeKib = 0;
+    long slowQueryMillis = QueryStats.DEFAULT_SLOW_QUERY_MILLIS;
+    boolean queryStats = false;
+    Map<String, String> optionDefaults = new LinkedHashMap<>();
+
+    try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      String line;
+      int lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        line = line.strip();
+        if (line.isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+
+        int separator = line.indexOf('=');
+        if (separator <= 0) {
+          throw new IllegalArgumentException(
+              "Ligne " + lineNumber + " de " + filePath + " invalide : " + line);
+        }
+        String key = line.substring(0, separator).strip();
+        String value = line.substring(separator + 1).strip();
+
+        switch (key) {
+          case "version" -> version = value;
+          case "pragma_profile" -> pragmaProfile = PragmaProfile.fromName(value);
+          case "pool_size" -> poolSize = parseInt(key, value, 1);
+          case "cache_size_kib" -> cacheSizeKib = parseInt(key, value, 0);
+          case "slow_query_ms" -> slowQueryMillis = parseInt(key, value, 0);
+          case "query_stats" -> queryStats = parseSwitch(key, value);
+          default -> {
+            if (!key.startsWith(DEFAULT_PREFIX)) {
+              throw new IllegalArgumentException(
+                  "Clé inconnue ligne " + lineNumber + " de " + filePath + " : " + key);
+            }
+            optionDefaults.put(key.substring(DEFAULT_PREFIX.length()), value);
+          }
+        }
+      }
+    }
+
+    if (version == null) {
+      throw new IllegalStateException("Version manquante dans " + filePath);
+    }
+
+    config =
+        new AppConfig(
+            version,
+            pragmaProfile,
+            poolSize,
+            cacheSizeKib,
+            optionDefaults,
+            slowQueryMillis,
+            queryStats);
+    return config;
+  }
 
-    org.w3c.dom.Node versionNode = doc.getElementsByTagName("version").item(0);
-    String version = versionNode.getTextContent();
+  private static int parseInt(String key, String value, int min) {
+    try {
+      int parsed = Integer.parseInt(value);
+      if (parsed >= min) {
+        return parsed;
+      }
+    } catch (NumberFormatException e) {
+      // Même message que pour une valeur hors bornes
+    }
+    throw new IllegalArgumentException(
+        "Valeur invalide pour " + key + " : " + value + " (entier >= " + min + " attendu)");
+  }
 
-    return new AppConfig(version);
+  private static boolean parseSwitch(String key, String value) {
+    return switch (value) {
+      case "on" -> true;
+      case "off" -> false;
+      default -> throw new IllegalArgumentException(
+          "Valeur invalide pour " + key + " : " + value + " (on ou off attendu)");
+    };
+  }
+
+  /** Reprend la version et le profil de l'ancien fichier XML, sans charger de parseur XML. */
+  private void migrateLegacyFile() throws Exception {
+    String xml = Files.readString(Path.of(legacyFilePath), StandardCharsets.UTF_8);
+
+    Matcher version = LEGACY_VERSION.matcher(xml);
+    if (!version.find()) {
+      throw new IllegalStateException("Version manquante dans " + legacyFilePath);
+    }
+    PragmaProfile pragmaProfile = PragmaProfile.DURABLE;
+    Matcher profile = LEGACY_PROFILE.matcher(xml);
+    if (profile.find()) {
+      pragmaProfile = PragmaProfile.fromName(profile.group(1));
+    }
+
+    writeFile(new AppConfig(version.group(1).strip(), pragmaProfile));
+    Files.delete(Path.of(legacyFilePath));
   }
 
   private void writeFile(AppConfig config) throws Exception {
-    DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-    DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-
-    Document doc = dBuilder.newDocument();
-    Element rootElement = doc.createElement("config");
-    doc.appendChild(rootElement);
-
-    Element version = doc.createElement("version");
-    version.setTextContent(config.getVersion());
-    rootElement.appendChild(version);
-
-    TransformerFactory transformerFactory = TransformerFactory.newInstance();
-    Transformer transformer = transformerFactory.newTransformer();
-    transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-    DOMSource source = new DOMSource(doc);
-    StreamResult result = new StreamResult(new File(filePath));
-    transformer.transform(source, result);
+    StringBuilder content = new StringBuilder();
+    content.append("version = ").append(config.getVersion()).append('\n');
+    content.append("pragma_profile = ").append(config.getPragmaProfile().getName()).append('\n');
+    content.append("pool_size = ").append(config.getPoolSize()).append('\n');
+    content.append("# 0 : taille du profil de pragmas\n");
+    content.append("cache_size_kib = ").append(config.getCacheSizeKib()).append('\n');
+    content.append("# Requêtes plus lentes journalisées dans le dossier de cache, 0 : aucune\n");
+    content.append("slow_query_ms = ").append(config.getSlowQueryMillis()).append('\n');
+    content.append("# on : mesurer les requêtes pour tasks stats --perf\n");
+    content
+        .append("query_stats = ")
+        .append(config.isQueryStatsEnabled() ? "on" : "off")
+        .append('\n');
+    content.append("# default.<commande>.<option> = valeur par défaut de l'option\n");
+    for (Map.Entry<String, String> entry : config.getOptionDefaults().entrySet()) {
+      content
+          .append(DEFAULT_PREFIX)
+          .append(entry.getKey())
+          .append(" = ")
+          .append(entry.getValue())
+          .append('\n');
+    }
+
+    Files.writeString(Path.of(filePath), content, StandardCharsets.UTF_8);
+    this.config = config;
   }
 
   public boolean fileExists() {
-    File file = new File(filePath);
-    return file.exists();
+    return new File(filePath).exists() || new File(legacyFilePath).exists();
   }
 
   public void init() throws Exception {
@@ -65,13 +198,29 @@ public class AppConfigRepository {
     writeFile(config);
   }
 
+  /**
+   * @return Configuration du fichier, ou celle par défaut s'il n'existe pas encore
+   */
+  public AppConfig getConfig() throws Exception {
+    if (!fileExists()) {
+      return new AppConfig("1.0");
+    }
+    return read();
+  }
+
   public String getAppVersion() throws Exception {
-    AppConfig config = read();
-    return config.getVersion();
+    return read().getVersion();
   }
 
   public void setAppVersion(String version) throws Exception {
-    AppConfig config = new AppConfig(version);
-    writeFile(config);
+    writeFile(read().withVersion(version));
+  }
+
+  public PragmaProfile getPragmaProfile() throws Exception {
+    return getConfig().getPragmaProfile();
+  }
+
+  public void setPragmaProfile(PragmaProfile pragmaProfile) throws Exception {
+    writeFile(read().withPragmaProfile(pragmaProfile));
   }
 }
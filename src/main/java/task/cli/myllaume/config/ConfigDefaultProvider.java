@@ -0,0 +1,62 @@
+package task.cli.myllaume.config;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import picocli.CommandLine;
+import picocli.CommandLine.IDefaultValueProvider;
+import picocli.CommandLine.Model.ArgSpec;
+import picocli.CommandLine.Model.OptionSpec;
+
+/**
+ * Valeurs par défaut des options lues dans la configuration, sous la clé {@code commande.option} :
+ * {@code default.list.page-size = 25} remplace le défaut de {@code tasks list --page-size}. Une
+ * option passée sur la ligne de commande reste prioritaire.
+ */
+public class ConfigDefaultProvider implements IDefaultValueProvider {
+  private final Map<String, String> optionDefaults;
+
+  public ConfigDefaultProvider(AppConfig config) {
+    this.optionDefaults = config.getOptionDefaults();
+  }
+
+  /**
+   * Installe les valeurs par défaut sur {@code cmd} et ses sous-commandes.
+   *
+   * @throws IllegalArgumentException Si une clé {@code default.*} ne désigne aucune option : elle
+   *     serait sinon ignorée sans bruit, comme une faute de frappe
+   */
+  public void install(CommandLine cmd) {
+    Set<String> keys = new HashSet<>();
+    collectKeys(cmd, keys);
+    for (String key : optionDefaults.keySet()) {
+      if (!keys.contains(key)) {
+        throw new IllegalArgumentException(
+            "Option inconnue dans la configuration : default." + key);
+      }
+    }
+    cmd.setDefaultValueProvider(this);
+  }
+
+  private static void collectKeys(CommandLine cmd, Set<String> keys) {
+    for (OptionSpec option : cmd.getCommandSpec().options()) {
+      keys.add(keyOf(option));
+    }
+    for (CommandLine subcommand : cmd.getSubcommands().values()) {
+      collectKeys(subcommand, keys);
+    }
+  }
+
+  private static String keyOf(OptionSpec option) {
+    return option.command().name() + "." + option.longestName().replaceFirst("^-+", "");
+  }
+
+  @Override
+  public String defaultValue(ArgSpec argSpec) {
+    if (!(argSpec instanceof OptionSpec option) || optionDefaults.isEmpty()) {
+      return null;
+    }
+
+    return optionDefaults.get(keyOf(option));
+  }
+}
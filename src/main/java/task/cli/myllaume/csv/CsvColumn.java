@@ -0,0 +1,35 @@
+package task.cli.myllaume.csv;
+
+public enum CsvColumn {
+  ID("id"),
+  DESCRIPTION("description"),
+  COMPLETED("completed"),
+  PRIORITY("priority"),
+  CREATED_AT("created_at"),
+  DUE_AT("due_at"),
+  DONE_AT("done_at"),
+  PROJECT("project"),
+  PARENT_ID("parent_id");
+
+  private final String name;
+
+  CsvColumn(String name) {
+    this.name = name;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return La colonne de ce nom, ou {@code null} si elle est inconnue
+   */
+  public static CsvColumn fromName(String name) {
+    for (CsvColumn column : values()) {
+      if (column.name.equals(name)) {
+        return column;
+      }
+    }
+    return null;
+  }
+}
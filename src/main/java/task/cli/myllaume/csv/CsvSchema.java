@@ -0,0 +1,203 @@
+package task.cli.myllaume.csv;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import task.cli.myllaume.TaskPriority;
+
+/**
+ * Colonnes d'un fichier CSV de tâches, dans l'ordre du fichier. À l'import, le schéma est déduit de
+ * l'en-tête : toute combinaison de colonnes connues est acceptée tant qu'elle contient {@code
+ * description} et {@code completed}. À l'export, {@link #V1} reste le format par défaut et {@link
+ * #V2} conserve tout ce qu'il faut pour recharger une base à l'identique.
+ *
+ * <p>Les dates sont au format ISO-8601 ({@code 2025-01-31T09:00:00Z}), la priorité est son niveau
+ * et {@code parent_id} désigne la colonne {@code id} d'une autre ligne du même fichier. Un champ
+ * vide vaut « non renseigné ».
+ */
+public class CsvSchema {
+  public static final CsvSchema V1 =
+      new CsvSchema(List.of(CsvColumn.DESCRIPTION, CsvColumn.COMPLETED));
+  public static final CsvSchema V2 =
+      new CsvSchema(
+          List.of(
+              CsvColumn.ID,
+              CsvColumn.DESCRIPTION,
+              CsvColumn.COMPLETED,
+              CsvColumn.PRIORITY,
+              CsvColumn.CREATED_AT,
+              CsvColumn.DUE_AT,
+              CsvColumn.DONE_AT,
+              CsvColumn.PROJECT,
+              CsvColumn.PARENT_ID));
+
+  private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+
+  private final List<CsvColumn> columns;
+  private final String header;
+
+  private CsvSchema(List<CsvColumn> columns) {
+    this.columns = columns;
+
+    ArrayList<String> names = new ArrayList<>();
+    for (CsvColumn column : columns) {
+      names.add(column.getName());
+    }
+    this.header = String.join(",", names);
+  }
+
+  static CsvSchema fromHeader(String line) throws CsvParsingException {
+    if (line == null) {
+      throw headerError();
+    }
+
+    ArrayList<CsvColumn> columns = new ArrayList<>();
+    for (String name : line.split(",", -1)) {
+      CsvColumn column = CsvColumn.fromName(name);
+      if (column == null || columns.contains(column)) {
+        throw headerError();
+      }
+      columns.add(column);
+    }
+
+    if (!columns.contains(CsvColumn.DESCRIPTION) || !columns.contains(CsvColumn.COMPLETED)) {
+      throw headerError();
+    }
+
+    return new CsvSchema(List.copyOf(columns));
+  }
+
+  private static CsvParsingException headerError() {
+    ArrayList<CsvError> errors = new ArrayList<>();
+    errors.add(new CsvError(1, "Format d'en-tête incorrect."));
+    return new CsvParsingException(errors);
+  }
+
+  public String getHeader() {
+    return header;
+  }
+
+  public List<CsvColumn> getColumns() {
+    return columns;
+  }
+
+  public boolean has(CsvColumn column) {
+    return columns.contains(column);
+  }
+
+  public String format(TaskCsv task) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < columns.size(); i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(formatField(columns.get(i), task));
+    }
+    return sb.toString();
+  }
+
+  private static String formatField(CsvColumn column, TaskCsv task) {
+    switch (column) {
+      case ID:
+        return toString(task.getSourceId());
+      case DESCRIPTION:
+        return CsvTokenizer.escape(task.getDescription());
+      case COMPLETED:
+        return task.getCompleted() ? "true" : "false";
+      case PRIORITY:
+        return task.getPriority() == null ? "" : String.valueOf(task.getPriority().getLevel());
+      case CREATED_AT:
+        return toString(task.getCreatedAt());
+      case DUE_AT:
+        return toString(task.getDueAt());
+      case DONE_AT:
+        return toString(task.getDoneAt());
+      case PROJECT:
+        return task.getProject() == null ? "" : CsvTokenizer.escape(task.getProject());
+      case PARENT_ID:
+        return toString(task.getParentId());
+      default:
+        throw new IllegalStateException("Colonne non gérée : " + column);
+    }
+  }
+
+  private static String toString(Object value) {
+    return value == null ? "" : value.toString();
+  }
+
+  TaskCsv parse(CsvTokenizer tokenizer) throws Exception {
+    if (tokenizer.getFieldCount() != columns.size()) {
+      throw new Exception("Ligne mal formée ou erreur de conversion.");
+    }
+
+    TaskCsv task = new TaskCsv(tokenizer.getLineNumber(), null, false);
+    for (int i = 0; i < columns.size(); i++) {
+      parseField(columns.get(i), tokenizer, i, task);
+    }
+    return task;
+  }
+
+  private static void parseField(CsvColumn column, CsvTokenizer tokenizer, int index, TaskCsv task)
+      throws Exception {
+    if (column == CsvColumn.COMPLETED) {
+      if (tokenizer.fieldEquals(index, TRUE)) {
+        task.setCompleted(true);
+      } else if (tokenizer.fieldEquals(index, FALSE)) {
+        task.setCompleted(false);
+      } else {
+        throw fieldError(column);
+      }
+      return;
+    }
+
+    String value = tokenizer.getField(index);
+    if (column == CsvColumn.DESCRIPTION) {
+      if (value.trim().isEmpty()) {
+        throw fieldError(column);
+      }
+      task.setDescription(value);
+      return;
+    }
+
+    if (value.isEmpty()) {
+      return;
+    }
+
+    try {
+      switch (column) {
+        case ID:
+          task.setSourceId(Integer.parseInt(value));
+          break;
+        case PRIORITY:
+          task.setPriority(TaskPriority.fromLevel(Integer.parseInt(value)));
+          break;
+        case CREATED_AT:
+          task.setCreatedAt(Instant.parse(value));
+          break;
+        case DUE_AT:
+          task.setDueAt(Instant.parse(value));
+          break;
+        case DONE_AT:
+          task.setDoneAt(Instant.parse(value));
+          break;
+        case PROJECT:
+          task.setProject(value);
+          break;
+        case PARENT_ID:
+          task.setParentId(Integer.parseInt(value));
+          break;
+        default:
+          throw new IllegalStateException("Colonne non gérée : " + column);
+      }
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw fieldError(column);
+    }
+  }
+
+  private static Exception fieldError(CsvColumn column) {
+    return new Exception("Le format du champ '" + column.getName() + "' est incorrect.");
+  }
+}
@@ -0,0 +1,188 @@
+package task.cli.myllaume.csv;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Découpage RFC 4180 d'une zone d'octets en enregistrements : champs entre guillemets, guillemets
+ * doublés et retours à la ligne dans un champ sont pris en charge. Le contenu des champs est
+ * recopié dans un tampon réutilisé d'un enregistrement à l'autre, rien n'est décodé tant que {@link
+ * #getField(int)} n'est pas appelé.
+ *
+ * <pre>
+ * tokenizer.reset(buffer, 0, buffer.limit(), 1);
+ * while (tokenizer.next()) {
+ *   String first = tokenizer.getField(0);
+ * }
+ * </pre>
+ */
+public class CsvTokenizer {
+  private static final String MALFORMED = "Ligne mal formée ou erreur de conversion.";
+
+  private ByteBuffer buffer;
+  private int position;
+  private int limit;
+  private int lineNumber;
+  private int recordLine;
+  private byte[] data = new byte[256];
+  private int dataLength;
+  private int[] fieldEnds = new int[8];
+  private int fieldCount;
+
+  /**
+   * @param firstLine Numéro de la ligne physique qui commence à {@code start}
+   */
+  public void reset(ByteBuffer buffer, int start, int limit, int firstLine) {
+    this.buffer = buffer;
+    this.position = start;
+    this.limit = limit;
+    this.lineNumber = firstLine;
+    this.recordLine = firstLine;
+    this.fieldCount = 0;
+  }
+
+  /**
+   * Avance sur l'enregistrement suivant.
+   *
+   * @return {@code false} à la fin de la zone
+   * @throws Exception si l'enregistrement est mal formé ; le tokenizer est alors placé au début de
+   *     la ligne suivante et {@link #getLineNumber()} désigne la ligne fautive
+   */
+  public boolean next() throws Exception {
+    if (position >= limit) {
+      return false;
+    }
+
+    recordLine = lineNumber;
+    dataLength = 0;
+    fieldCount = 0;
+
+    boolean fieldStart = true;
+    boolean quoted = false;
+    boolean afterQuote = false;
+
+    while (position < limit) {
+      byte b = buffer.get(position++);
+
+      if (quoted) {
+        if (b == '"') {
+          quoted = false;
+          afterQuote = true;
+        } else {
+          if (b == '\n') {
+            lineNumber++;
+          }
+          append(b);
+        }
+        continue;
+      }
+
+      if (afterQuote) {
+        afterQuote = false;
+        if (b == '"') {
+          // Guillemet doublé dans un champ entre guillemets
+          append(b);
+          quoted = true;
+          continue;
+        }
+        if (b != ',' && b != '\n' && b != '\r') {
+          skipLine();
+          throw new Exception(MALFORMED);
+        }
+      }
+
+      if (b == ',') {
+        endField();
+        fieldStart = true;
+      } else if (b == '\n') {
+        lineNumber++;
+        endField();
+        return true;
+      } else if (b == '\r' && (position == limit || buffer.get(position) == '\n')) {
+        // Fin de ligne Windows
+      } else if (b == '"') {
+        if (!fieldStart) {
+          skipLine();
+          throw new Exception(MALFORMED);
+        }
+        quoted = true;
+        fieldStart = false;
+      } else {
+        fieldStart = false;
+        append(b);
+      }
+    }
+
+    if (quoted) {
+      // Guillemet ouvrant jamais refermé
+      throw new Exception(MALFORMED);
+    }
+
+    endField();
+    return true;
+  }
+
+  private void skipLine() {
+    while (position < limit) {
+      if (buffer.get(position++) == '\n') {
+        lineNumber++;
+        return;
+      }
+    }
+  }
+
+  private void append(byte b) {
+    if (dataLength == data.length) {
+      data = Arrays.copyOf(data, data.length * 2);
+    }
+    data[dataLength++] = b;
+  }
+
+  private void endField() {
+    if (fieldCount == fieldEnds.length) {
+      fieldEnds = Arrays.copyOf(fieldEnds, fieldEnds.length * 2);
+    }
+    fieldEnds[fieldCount++] = dataLength;
+  }
+
+  /**
+   * @return Numéro de la ligne physique où commence l'enregistrement courant
+   */
+  public int getLineNumber() {
+    return recordLine;
+  }
+
+  public int getFieldCount() {
+    return fieldCount;
+  }
+
+  public String getField(int index) {
+    int start = fieldStart(index);
+    return new String(data, start, fieldEnds[index] - start, StandardCharsets.UTF_8);
+  }
+
+  /** Compare le champ aux octets attendus, sans le décoder. */
+  public boolean fieldEquals(int index, byte[] expected) {
+    int start = fieldStart(index);
+    return Arrays.equals(data, start, fieldEnds[index], expected, 0, expected.length);
+  }
+
+  private int fieldStart(int index) {
+    if (index < 0 || index >= fieldCount) {
+      throw new IndexOutOfBoundsException("Champ " + index + " sur " + fieldCount);
+    }
+    return index == 0 ? 0 : fieldEnds[index - 1];
+  }
+
+  /** Met le champ entre guillemets s'il contient un séparateur, un guillemet ou un retour. */
+  public static String escape(String field) {
+    for (int i = 0; i < field.length(); i++) {
+      char c = field.charAt(i);
+      if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+        return "\"" + field.replace("\"", "\"\"") + "\"";
+      }
+    }
+    return field;
+  }
+}
@@ -10,6 +10,11 @@ public class DeleteOriginalFileException extends IOException {
     this.filePath = filePath;
   }
 
+  public DeleteOriginalFileException(String filePath, Throwable cause) {
+    super("Erreur lors de la suppression du fichier d'origine : " + filePath, cause);
+    this.filePath = filePath;
+  }
+
   public String getFilePath() {
     return filePath;
   }
@@ -0,0 +1,159 @@
+package task.cli.myllaume.csv;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lecture d'un fichier CSV projeté en mémoire avec {@link FileChannel#map}. Le fichier est découpé
+ * en blocs d'enregistrements complets qui restent des vues sur la projection : aucune ligne n'est
+ * copiée ni décodée ici. Les gros fichiers sont projetés par fenêtres de {@link #WINDOW_SIZE}
+ * octets.
+ */
+public class MappedCsvReader implements AutoCloseable {
+  static final int WINDOW_SIZE = 256 << 20;
+
+  /**
+   * Bloc d'enregistrements complets. {@link #getFirstLine()} est le numéro de ligne physique de son
+   * premier octet.
+   */
+  public static class LineBlock {
+    private final ByteBuffer buffer;
+    private final int firstLine;
+
+    LineBlock(ByteBuffer buffer, int firstLine) {
+      this.buffer = buffer;
+      this.firstLine = firstLine;
+    }
+
+    public ByteBuffer getBuffer() {
+      return buffer;
+    }
+
+    public int getFirstLine() {
+      return firstLine;
+    }
+  }
+
+  private final FileChannel channel;
+  private final long size;
+  private final int windowSize;
+  private MappedByteBuffer window;
+  private long windowStart;
+  private long position = 0;
+  private int lineNumber = 0;
+
+  public MappedCsvReader(String filePath) throws IOException {
+    this(filePath, WINDOW_SIZE);
+  }
+
+  public MappedCsvReader(String filePath, int windowSize) throws IOException {
+    this.channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ);
+    this.size = channel.size();
+    this.windowSize = windowSize;
+  }
+
+  /**
+   * @return La ligne suivante décodée, sans son retour à la ligne, ou {@code null} en fin de
+   *     fichier
+   */
+  public String readLine() throws IOException {
+    LineBlock block = nextBlock(1);
+    if (block == null) {
+      return null;
+    }
+
+    ByteBuffer buffer = block.getBuffer();
+    int end = trimLineEnd(buffer, 0, buffer.limit());
+    byte[] bytes = new byte[end];
+    buffer.get(0, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * @return Au plus {@code maxLines} enregistrements complets, ou {@code null} en fin de fichier
+   */
+  public LineBlock nextBlock(int maxLines) throws IOException {
+    if (position >= size) {
+      return null;
+    }
+
+    if (window == null || position >= windowStart + window.limit()) {
+      map(position);
+    }
+
+    int start = (int) (position - windowStart);
+    int limit = window.limit();
+    int records = 0;
+    int lines = 0;
+    int blockEnd = -1;
+    int blockLines = 0;
+    boolean quoted = false;
+
+    // Un retour à la ligne entre guillemets appartient au champ : il ne termine pas
+    // l'enregistrement
+    for (int i = start; i < limit && records < maxLines; i++) {
+      byte b = window.get(i);
+      if (b == '"') {
+        quoted = !quoted;
+      } else if (b == '\n') {
+        lines++;
+        if (!quoted) {
+          records++;
+          blockEnd = i + 1;
+          blockLines = lines;
+        }
+      }
+    }
+
+    if (records < maxLines) {
+      if (windowStart + limit == size) {
+        // Dernier enregistrement du fichier sans retour à la ligne
+        if (blockEnd < limit) {
+          blockEnd = limit;
+          blockLines = lines + 1;
+        }
+      } else if (blockEnd == -1) {
+        if (start == 0) {
+          throw new IOException("Ligne trop longue à partir de l'octet " + position);
+        }
+        // L'enregistrement courant déborde de la fenêtre : on projette à partir de son début
+        map(position);
+        return nextBlock(maxLines);
+      }
+    }
+
+    LineBlock block = new LineBlock(window.slice(start, blockEnd - start), lineNumber + 1);
+    lineNumber += blockLines;
+    position = windowStart + blockEnd;
+    return block;
+  }
+
+  private void map(long offset) throws IOException {
+    windowStart = offset;
+    window =
+        channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(windowSize, size - offset));
+  }
+
+  /**
+   * @return La fin de la ligne {@code [start, end)} sans {@code \n} ni {@code \r} final
+   */
+  private static int trimLineEnd(ByteBuffer buffer, int start, int end) {
+    if (end > start && buffer.get(end - 1) == '\n') {
+      end--;
+    }
+    if (end > start && buffer.get(end - 1) == '\r') {
+      end--;
+    }
+    return end;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
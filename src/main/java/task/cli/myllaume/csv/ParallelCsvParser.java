@@ -0,0 +1,193 @@
+package task.cli.myllaume.csv;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Lecture d'un CSV en trois étages : un thread découpe le fichier projeté en mémoire (voir {@link
+ * MappedCsvReader}) en paquets de lignes, un pool de workers analyse et transforme chaque paquet en
+ * parallèle, et le thread appelant consomme les paquets dans l'ordre du fichier. Au plus {@code 2 ×
+ * threads} paquets sont en vol, la mémoire reste bornée quelle que soit la taille du fichier.
+ *
+ * <p>Le {@code mapper} s'exécute sur les workers : c'est là que doit se faire le travail coûteux
+ * par ligne. S'il renvoie {@code null}, la ligne est ignorée.
+ */
+public class ParallelCsvParser<T> implements Iterator<ParallelCsvParser.Chunk<T>>, AutoCloseable {
+  public static final int DEFAULT_CHUNK_LINES = 2_048;
+  public static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+
+  /** Paquet de lignes analysées, avec les erreurs rencontrées, dans l'ordre du fichier. */
+  public static class Chunk<T> {
+    private final List<T> rows;
+    private final List<CsvError> errors;
+
+    Chunk(List<T> rows, List<CsvError> errors) {
+      this.rows = rows;
+      this.errors = errors;
+    }
+
+    public List<T> getRows() {
+      return rows;
+    }
+
+    public List<CsvError> getErrors() {
+      return errors;
+    }
+  }
+
+  private final MappedCsvReader reader;
+  private final CsvSchema schema;
+  private final Function<TaskCsv, T> mapper;
+  private final int chunkLines;
+  private final ExecutorService workers;
+  private final BlockingQueue<Future<Chunk<T>>> inFlight;
+  private final Thread readerThread;
+  private final ThreadLocal<CsvTokenizer> tokenizers = ThreadLocal.withInitial(CsvTokenizer::new);
+  private Chunk<T> next;
+  private boolean finished = false;
+
+  ParallelCsvParser(String filePath, Function<TaskCsv, T> mapper, int threads, int chunkLines)
+      throws IOException, CsvParsingException {
+    if (threads <= 0 || chunkLines <= 0) {
+      throw new IllegalArgumentException("Thread count and chunk size must be positive integers");
+    }
+
+    this.reader = new MappedCsvReader(filePath);
+    try {
+      this.schema = CsvSchema.fromHeader(reader.readLine());
+    } catch (CsvParsingException e) {
+      reader.close();
+      throw e;
+    }
+
+    this.mapper = mapper;
+    this.chunkLines = chunkLines;
+    this.inFlight = new ArrayBlockingQueue<>(threads * 2);
+    this.workers =
+        Executors.newFixedThreadPool(
+            threads,
+            runnable -> {
+              Thread thread = new Thread(runnable, "csv-parser");
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.readerThread = new Thread(this::readChunks, "csv-reader");
+    this.readerThread.setDaemon(true);
+    this.readerThread.start();
+  }
+
+  private void readChunks() {
+    try {
+      MappedCsvReader.LineBlock block;
+      while ((block = reader.nextBlock(chunkLines)) != null) {
+        MappedCsvReader.LineBlock lines = block;
+        inFlight.put(workers.submit(() -> parse(lines)));
+      }
+      inFlight.put(CompletableFuture.completedFuture(null));
+    } catch (IOException e) {
+      try {
+        inFlight.put(CompletableFuture.failedFuture(e));
+      } catch (InterruptedException interrupted) {
+        // Lecture abandonnée par close()
+      }
+    } catch (InterruptedException | RejectedExecutionException e) {
+      // Lecture abandonnée par close()
+    }
+  }
+
+  private Chunk<T> parse(MappedCsvReader.LineBlock block) {
+    ByteBuffer buffer = block.getBuffer();
+    List<T> rows = new ArrayList<>(chunkLines);
+    List<CsvError> errors = new ArrayList<>();
+
+    CsvTokenizer tokenizer = tokenizers.get();
+    tokenizer.reset(buffer, 0, buffer.limit(), block.getFirstLine());
+    while (true) {
+      try {
+        if (!tokenizer.next()) {
+          break;
+        }
+        T row = mapper.apply(schema.parse(tokenizer));
+        if (row != null) {
+          rows.add(row);
+        }
+      } catch (Exception e) {
+        errors.add(new CsvError(tokenizer.getLineNumber(), e.getMessage()));
+      }
+    }
+
+    return new Chunk<>(rows, errors);
+  }
+
+  /**
+   * @return Colonnes du fichier, lues dans son en-tête
+   */
+  public CsvSchema getSchema() {
+    return schema;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next != null) {
+      return true;
+    }
+    if (finished) {
+      return false;
+    }
+
+    try {
+      next = inFlight.take().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Lecture du CSV interrompue", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw new UncheckedIOException((IOException) cause);
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IllegalStateException(cause);
+    }
+
+    finished = next == null;
+    return !finished;
+  }
+
+  @Override
+  public Chunk<T> next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    Chunk<T> chunk = next;
+    next = null;
+    return chunk;
+  }
+
+  @Override
+  public void close() throws IOException {
+    readerThread.interrupt();
+    workers.shutdownNow();
+    try {
+      readerThread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    reader.close();
+  }
+}
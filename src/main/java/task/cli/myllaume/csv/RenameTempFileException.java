@@ -10,6 +10,11 @@ public class RenameTempFileException extends IOException {
     this.filePath = filePath;
   }
 
+  public RenameTempFileException(String filePath, Throwable cause) {
+    super("Erreur lors du renommage du fichier temporaire : " + filePath, cause);
+    this.filePath = filePath;
+  }
+
   public String getFilePath() {
     return filePath;
   }
@@ -1,9 +1,19 @@
 package task.cli.myllaume.csv;
 
+import java.time.Instant;
+import task.cli.myllaume.TaskPriority;
+
 public class TaskCsv {
   private final int id;
   private String description;
   private boolean completed;
+  private Integer sourceId;
+  private TaskPriority priority;
+  private Instant createdAt;
+  private Instant dueAt;
+  private Instant doneAt;
+  private String project;
+  private Integer parentId;
 
   public TaskCsv(int id, String description, boolean completed) {
     this.id = id;
@@ -31,12 +41,71 @@ public class TaskCsv {
     this.completed = completed;
   }
 
+  /**
+   * @return Valeur de la colonne {@code id} du fichier, à ne pas confondre avec {@link #getId()}
+   */
+  public Integer getSourceId() {
+    return sourceId;
+  }
+
+  public void setSourceId(Integer sourceId) {
+    this.sourceId = sourceId;
+  }
+
+  public TaskPriority getPriority() {
+    return priority;
+  }
+
+  public void setPriority(TaskPriority priority) {
+    this.priority = priority;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  public Instant getDueAt() {
+    return dueAt;
+  }
+
+  public void setDueAt(Instant dueAt) {
+    this.dueAt = dueAt;
+  }
+
+  public Instant getDoneAt() {
+    return doneAt;
+  }
+
+  public void setDoneAt(Instant doneAt) {
+    this.doneAt = doneAt;
+  }
+
+  public String getProject() {
+    return project;
+  }
+
+  public void setProject(String project) {
+    this.project = project;
+  }
+
+  public Integer getParentId() {
+    return parentId;
+  }
+
+  public void setParentId(Integer parentId) {
+    this.parentId = parentId;
+  }
+
   @Override
   public String toString() {
     return "[" + (completed ? "✓" : "✗") + "] " + description;
   }
 
   public String toCsv() {
-    return description + "," + (completed ? "true" : "false");
+    return CsvSchema.V1.format(this);
   }
 }
@@ -2,23 +2,38 @@ package task.cli.myllaume.csv;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.function.Function;
 
 public class TaskRepositoryCsv {
   private final String filePath;
-  private static final String header = "description,completed";
+  private final CsvSchema schema;
 
-  private TaskRepositoryCsv(String filePath) {
+  private TaskRepositoryCsv(String filePath, CsvSchema schema) {
     this.filePath = filePath;
+    this.schema = schema;
   }
 
   public static TaskRepositoryCsv of(String filePath) {
+    return of(filePath, CsvSchema.V1);
+  }
+
+  /**
+   * @param schema Colonnes écrites par ce repository ; à la lecture, le schéma vient de l'en-tête
+   *     du fichier
+   */
+  public static TaskRepositoryCsv of(String filePath, CsvSchema schema) {
     File file = new File(filePath);
     if (!file.getName().endsWith(".csv")) {
       throw new IllegalArgumentException("Le fichier doit avoir l'extension .csv");
     }
 
-    return new TaskRepositoryCsv(file.getAbsolutePath());
+    return new TaskRepositoryCsv(file.getAbsolutePath(), schema);
   }
 
   public void init(boolean overwrite) throws IOException {
@@ -27,54 +42,73 @@ public class TaskRepositoryCsv {
       try (BufferedWriter writer =
           new BufferedWriter(
               new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
-        writer.write(TaskRepositoryCsv.header);
+        writer.write(schema.getHeader());
         writer.newLine();
       }
     }
   }
 
   private ArrayList<TaskCsv> read() throws Exception {
-    File file = new File(this.filePath);
-    if (!file.exists()) {
-      throw new FileNotExistsException(this.filePath);
-    }
-
     ArrayList<TaskCsv> tasks = new ArrayList<>();
     ArrayList<CsvError> errors = new ArrayList<>();
 
-    try (BufferedReader reader =
-        new BufferedReader(
-            new InputStreamReader(new FileInputStream(this.filePath), StandardCharsets.UTF_8))) {
+    try (ParallelCsvParser<TaskCsv> parser =
+        openParallelReader(Function.identity(), ParallelCsvParser.DEFAULT_THREADS)) {
+      while (parser.hasNext()) {
+        ParallelCsvParser.Chunk<TaskCsv> chunk = parser.next();
+        tasks.addAll(chunk.getRows());
+        errors.addAll(chunk.getErrors());
+      }
+    }
 
-      int lineNumber = 1;
+    if (!errors.isEmpty()) {
+      throw new CsvParsingException(errors);
+    }
 
-      String header = reader.readLine();
-      if (!header.equals(TaskRepositoryCsv.header)) {
-        errors.add(new CsvError(1, "Format d'en-tête incorrect."));
-        throw new CsvParsingException(errors);
-      }
+    return tasks;
+  }
 
-      String line;
+  /**
+   * Ouvre une lecture en parallèle du fichier : voir {@link ParallelCsvParser}. L'en-tête est
+   * vérifié immédiatement.
+   */
+  public <T> ParallelCsvParser<T> openParallelReader(Function<TaskCsv, T> mapper, int threads)
+      throws Exception {
+    File file = new File(this.filePath);
+    if (!file.exists()) {
+      throw new FileNotExistsException(this.filePath);
+    }
 
-      lineNumber++;
+    return new ParallelCsvParser<>(
+        this.filePath, mapper, threads, ParallelCsvParser.DEFAULT_CHUNK_LINES);
+  }
 
-      while ((line = reader.readLine()) != null) {
-        try {
-          TaskCsv task = TaskRepositoryCsv.parseCsvLine(line, lineNumber);
-          tasks.add(task);
-        } catch (Exception e) {
-          errors.add(new CsvError(lineNumber, e.getMessage()));
-        }
+  /**
+   * Parcourt tout le fichier sans garder les lignes en mémoire.
+   *
+   * @throws CsvParsingException si au moins une ligne est invalide
+   */
+  public void validate() throws Exception {
+    ArrayList<CsvError> errors = new ArrayList<>();
 
-        lineNumber++;
+    try (ParallelCsvParser<TaskCsv> parser =
+        openParallelReader(task -> null, ParallelCsvParser.DEFAULT_THREADS)) {
+      while (parser.hasNext()) {
+        errors.addAll(parser.next().getErrors());
       }
     }
 
     if (!errors.isEmpty()) {
       throw new CsvParsingException(errors);
     }
+  }
 
-    return tasks;
+  public String getFilePath() {
+    return filePath;
+  }
+
+  public CsvSchema getSchema() {
+    return schema;
   }
 
   public ArrayList<TaskCsv> getTasks() throws Exception {
@@ -86,27 +120,118 @@ public class TaskRepositoryCsv {
         new BufferedWriter(
             new OutputStreamWriter(
                 new FileOutputStream(this.filePath, true), StandardCharsets.UTF_8))) {
-      writer.write(task.toCsv());
+      writer.write(schema.format(task));
       writer.newLine();
     }
   }
 
-  private static TaskCsv parseCsvLine(String line, int lineNumber) throws Exception {
-    String[] parts = line.split(",");
-    if (parts.length != header.split(",").length) {
-      throw new Exception("Ligne mal formée ou erreur de conversion.");
+  /**
+   * Écrit toutes les lignes avec un seul flux bufferisé vers un fichier temporaire, puis remplace
+   * le fichier cible par un renommage. Sans {@code overwrite}, les lignes sont ajoutées directement
+   * à la fin du fichier existant : son contenu n'est pas modifié, il n'y a rien à recopier.
+   *
+   * @return Nombre de lignes écrites
+   * @throws IllegalArgumentException Sans {@code overwrite}, si l'en-tête du fichier existant n'est
+   *     pas celui du schéma, ou si le schéma a une colonne {@code id} : les identifiants du second
+   *     export répéteraient ceux du premier
+   */
+  public int writeAll(Iterator<TaskCsv> tasks, boolean overwrite) throws IOException {
+    Path target = Path.of(this.filePath);
+    if (!overwrite && Files.exists(target)) {
+      String header = checkAppendable(target);
+      try (BufferedWriter writer = openWriter(target, true)) {
+        if (header == null) {
+          writer.write(schema.getHeader());
+          writer.newLine();
+        }
+        return writeLines(writer, tasks);
+      }
+    }
+
+    // Nom unique : deux exports vers la même cible, ou un fichier de l'utilisateur, ne se
+    // marchent pas dessus
+    Path temp =
+        Files.createTempFile(
+            target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+    int count;
+    try {
+      try (BufferedWriter writer = openWriter(temp, false)) {
+        writer.write(schema.getHeader());
+        writer.newLine();
+        count = writeLines(writer, tasks);
+      }
+
+      replace(temp, target);
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(temp);
+      throw e;
+    }
+
+    return count;
+  }
+
+  /**
+   * @return En-tête du fichier, null s'il est vide
+   */
+  private String checkAppendable(Path target) throws IOException {
+    if (schema.has(CsvColumn.ID)) {
+      throw new IllegalArgumentException(
+          "Impossible d'ajouter des lignes avec la colonne id à un fichier existant : " + filePath);
+    }
+
+    String header;
+    try (BufferedReader reader = Files.newBufferedReader(target, StandardCharsets.UTF_8)) {
+      header = reader.readLine();
+    }
+    if (header != null && !header.equals(schema.getHeader())) {
+      throw new IllegalArgumentException(
+          "L'en-tête de "
+              + filePath
+              + " ("
+              + header
+              + ") ne correspond pas au format d'export ("
+              + schema.getHeader()
+              + ")");
+    }
+    return header;
+  }
+
+  private static BufferedWriter openWriter(Path path, boolean append) throws IOException {
+    return new BufferedWriter(
+        new OutputStreamWriter(new FileOutputStream(path.toFile(), append), StandardCharsets.UTF_8),
+        1 << 16);
+  }
+
+  private int writeLines(BufferedWriter writer, Iterator<TaskCsv> tasks) throws IOException {
+    int count = 0;
+    while (tasks.hasNext()) {
+      writer.write(schema.format(tasks.next()));
+      writer.newLine();
+      count++;
     }
+    return count;
+  }
 
-    if (parts[0].trim().isEmpty()) {
-      throw new Exception("Le format du champ 'description' est incorrect.");
+  private static void replace(Path temp, Path target) throws IOException {
+    try {
+      Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      return;
+    } catch (AtomicMoveNotSupportedException e) {
+      // Système de fichiers sans renommage atomique : suppression puis renommage
+    } catch (IOException e) {
+      throw new RenameTempFileException(temp.toString(), e);
     }
 
-    if (!parts[1].equals("true") && !parts[1].equals("false")) {
-      throw new Exception("Le format du champ 'completed' est incorrect.");
+    try {
+      Files.deleteIfExists(target);
+    } catch (IOException e) {
+      throw new DeleteOriginalFileException(target.toString(), e);
     }
 
-    String description = parts[0];
-    boolean completed = Boolean.parseBoolean(parts[1]);
-    return new TaskCsv(lineNumber, description, completed);
+    try {
+      Files.move(temp, target);
+    } catch (IOException e) {
+      throw new RenameTempFileException(temp.toString(), e);
+    }
   }
 }
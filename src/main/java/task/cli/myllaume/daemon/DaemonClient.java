@@ -0,0 +1,100 @@
+package task.cli.myllaume.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/** Client léger de {@link DaemonServer} : transmet les arguments et recopie les sorties. */
+public class DaemonClient {
+  /** Attente maximale du début de la commande sur le serveur. */
+  public static final long ACCEPT_TIMEOUT_MILLIS = 1_000;
+
+  private DaemonClient() {}
+
+  public static Integer tryForward(Path socketPath, String[] args, PrintStream out, PrintStream err)
+      throws IOException {
+    return tryForward(socketPath, args, out, err, ACCEPT_TIMEOUT_MILLIS);
+  }
+
+  /**
+   * @param acceptTimeoutMillis Attente maximale du début de la commande sur le serveur ; une fois
+   *     commencée, la commande n'est plus abandonnée
+   * @return Code de sortie de la commande, ou null si aucun serveur n'a pris la commande à temps :
+   *     elle doit alors s'exécuter localement
+   * @throws IOException si l'échange est interrompu après le début de la commande ; elle a pu être
+   *     exécutée
+   */
+  public static Integer tryForward(
+      Path socketPath, String[] args, PrintStream out, PrintStream err, long acceptTimeoutMillis)
+      throws IOException {
+    SocketChannel channel = connect(socketPath);
+    if (channel == null) {
+      return null;
+    }
+
+    try (channel) {
+      try {
+        DataOutputStream request =
+            new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+        DaemonProtocol.writeRequest(request, args);
+        if (!DaemonProtocol.awaitAccepted(channel, acceptTimeoutMillis)) {
+          return null;
+        }
+      } catch (IOException e) {
+        // Serveur arrêté ou requête refusée : la commande n'a pas été exécutée
+        return null;
+      }
+
+      DataInputStream response =
+          new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+      int exitCode = response.readInt();
+      out.write(DaemonProtocol.readBytes(response));
+      out.flush();
+      err.write(DaemonProtocol.readBytes(response));
+      err.flush();
+      return exitCode;
+    }
+  }
+
+  public static boolean isListening(Path socketPath) {
+    SocketChannel channel = connect(socketPath);
+    if (channel == null) {
+      return false;
+    }
+    try {
+      channel.close();
+    } catch (IOException e) {
+      // Connexion de test, rien à libérer
+    }
+    return true;
+  }
+
+  private static SocketChannel connect(Path socketPath) {
+    if (!Files.exists(socketPath)) {
+      return null;
+    }
+
+    try {
+      SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+      try {
+        channel.connect(UnixDomainSocketAddress.of(socketPath));
+        return channel;
+      } catch (IOException e) {
+        channel.close();
+        // Fichier laissé par un serveur arrêté
+        return null;
+      }
+    } catch (IOException e) {
+      return null;
+    }
+  }
+}
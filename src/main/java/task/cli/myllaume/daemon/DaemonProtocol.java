@@ -0,0 +1,147 @@
+package task.cli.myllaume.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Échanges sur la socket du serveur. Une connexion porte une seule commande : le client envoie ses
+ * arguments, le serveur confirme par {@link #ACCEPTED} au moment d'exécuter la commande, puis
+ * répond par le code de sortie et les sorties standard et d'erreur. Chaque chaîne ou bloc d'octets
+ * est précédé de sa longueur.
+ *
+ * <p>Les lectures qui attendent l'autre partie avant que la commande ne démarre ont un délai : un
+ * client muet ne bloque pas le serveur, et un serveur occupé ne bloque pas le client, qui exécute
+ * alors la commande lui-même.
+ */
+final class DaemonProtocol {
+  static final int ACCEPTED = 0x5441534b;
+  private static final int MAX_LENGTH = 64 << 20;
+  private static final int MAX_ARGS = 4096;
+
+  private DaemonProtocol() {}
+
+  static void writeRequest(DataOutputStream out, String[] args) throws IOException {
+    out.writeInt(args.length);
+    for (String arg : args) {
+      writeBytes(out, arg.getBytes(StandardCharsets.UTF_8));
+    }
+    out.flush();
+  }
+
+  /**
+   * @throws SocketTimeoutException si la requête n'est pas arrivée entière dans le délai
+   */
+  static String[] readRequest(SocketChannel channel, long timeoutMillis) throws IOException {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    try (Selector selector = Selector.open()) {
+      channel.configureBlocking(false);
+      channel.register(selector, SelectionKey.OP_READ);
+
+      int count = readInt(channel, selector, deadline);
+      if (count < 0 || count > MAX_ARGS) {
+        throw new IOException("Requête invalide : " + count + " arguments");
+      }
+
+      String[] args = new String[count];
+      for (int i = 0; i < count; i++) {
+        int length = readInt(channel, selector, deadline);
+        if (length < 0 || length > MAX_LENGTH) {
+          throw new IOException("Longueur invalide : " + length);
+        }
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+        readFully(channel, selector, bytes, deadline);
+        args[i] = new String(bytes.array(), StandardCharsets.UTF_8);
+      }
+      return args;
+    } finally {
+      // Le sélecteur fermé a retiré l'enregistrement : la réponse s'écrit en mode bloquant
+      channel.configureBlocking(true);
+    }
+  }
+
+  static void writeAccepted(SocketChannel channel) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES).putInt(ACCEPTED).flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  /**
+   * @return false si le serveur n'a pas commencé la commande dans le délai
+   */
+  static boolean awaitAccepted(SocketChannel channel, long timeoutMillis) throws IOException {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    try (Selector selector = Selector.open()) {
+      channel.configureBlocking(false);
+      channel.register(selector, SelectionKey.OP_READ);
+      if (readInt(channel, selector, deadline) != ACCEPTED) {
+        throw new IOException("Réponse invalide du serveur");
+      }
+      return true;
+    } catch (SocketTimeoutException e) {
+      return false;
+    } finally {
+      channel.configureBlocking(true);
+    }
+  }
+
+  private static int readInt(SocketChannel channel, Selector selector, long deadline)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+    readFully(channel, selector, buffer, deadline);
+    return buffer.getInt(0);
+  }
+
+  private static void readFully(
+      SocketChannel channel, Selector selector, ByteBuffer buffer, long deadline)
+      throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) < 0) {
+        throw new EOFException("Connexion fermée avant la fin du message");
+      }
+      if (!buffer.hasRemaining()) {
+        return;
+      }
+
+      long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+      if (remaining <= 0) {
+        throw new SocketTimeoutException("Délai dépassé");
+      }
+      selector.select(remaining);
+      selector.selectedKeys().clear();
+    }
+  }
+
+  static void writeResponse(DataOutputStream out, int exitCode, byte[] stdout, byte[] stderr)
+      throws IOException {
+    out.writeInt(exitCode);
+    writeBytes(out, stdout);
+    writeBytes(out, stderr);
+    out.flush();
+  }
+
+  private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  static byte[] readBytes(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0 || length > MAX_LENGTH) {
+      throw new IOException("Longueur invalide : " + length);
+    }
+
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return bytes;
+  }
+}
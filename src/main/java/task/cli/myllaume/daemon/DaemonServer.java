@@ -0,0 +1,133 @@
+package task.cli.myllaume.daemon;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Serveur de commandes sur une socket Unix : le processus garde ses repositories et ses connexions
+ * ouverts, et chaque client n'a plus à payer le démarrage de la JVM. Les commandes écrivent sur
+ * {@code System.out} : elles sont exécutées une à une, avec les sorties standard redirigées vers la
+ * réponse du client. Une requête qui n'arrive pas entière en {@link #REQUEST_TIMEOUT_MILLIS} est
+ * abandonnée.
+ */
+public class DaemonServer implements AutoCloseable {
+  public static final String SOCKET_NAME = "tasks.sock";
+  public static final long REQUEST_TIMEOUT_MILLIS = 500;
+
+  @FunctionalInterface
+  public interface CommandRunner {
+    /**
+     * @return Code de sortie de la commande
+     */
+    int run(String[] args) throws Exception;
+  }
+
+  private final Path socketPath;
+  private final CommandRunner runner;
+  private final long requestTimeoutMillis;
+  private ServerSocketChannel channel;
+
+  public DaemonServer(Path socketPath, CommandRunner runner) {
+    this(socketPath, runner, REQUEST_TIMEOUT_MILLIS);
+  }
+
+  public DaemonServer(Path socketPath, CommandRunner runner, long requestTimeoutMillis) {
+    this.socketPath = socketPath;
+    this.runner = runner;
+    this.requestTimeoutMillis = requestTimeoutMillis;
+  }
+
+  /**
+   * Ouvre la socket. Un fichier de socket laissé par un serveur arrêté est remplacé.
+   *
+   * @throws IOException si un autre serveur écoute déjà sur ce chemin
+   */
+  public void bind() throws IOException {
+    if (Files.exists(socketPath)) {
+      if (DaemonClient.isListening(socketPath)) {
+        throw new IOException("Un serveur écoute déjà sur " + socketPath);
+      }
+      Files.delete(socketPath);
+    }
+
+    channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+    channel.bind(UnixDomainSocketAddress.of(socketPath));
+  }
+
+  /** Traite les connexions jusqu'à {@link #close()}. */
+  public void serve() throws IOException {
+    if (channel == null) {
+      throw new IllegalStateException("Server socket is not bound");
+    }
+
+    while (channel.isOpen()) {
+      SocketChannel client;
+      try {
+        client = channel.accept();
+      } catch (ClosedChannelException e) {
+        // Fermé par close(), y compris pendant accept()
+        return;
+      }
+
+      try (client) {
+        handle(client);
+      } catch (IOException e) {
+        // Client muet, trop lent ou parti avant la réponse : le serveur continue
+      }
+    }
+  }
+
+  private void handle(SocketChannel client) throws IOException {
+    String[] args = DaemonProtocol.readRequest(client, requestTimeoutMillis);
+    // Si le client a abandonné entre-temps, l'écriture échoue et la commande n'est pas exécutée
+    DaemonProtocol.writeAccepted(client);
+
+    ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+    ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+    PrintStream oldOut = System.out;
+    PrintStream oldErr = System.err;
+    int exitCode;
+
+    try {
+      System.setOut(new PrintStream(stdout, true, StandardCharsets.UTF_8));
+      System.setErr(new PrintStream(stderr, true, StandardCharsets.UTF_8));
+      exitCode = runner.run(args);
+    } catch (Exception e) {
+      System.err.println("Unexpected error: " + e.getMessage());
+      exitCode = 1;
+    } finally {
+      System.out.flush();
+      System.err.flush();
+      System.setOut(oldOut);
+      System.setErr(oldErr);
+    }
+
+    DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(client)));
+    DaemonProtocol.writeResponse(out, exitCode, stdout.toByteArray(), stderr.toByteArray());
+  }
+
+  public Path getSocketPath() {
+    return socketPath;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (channel != null) {
+      channel.close();
+    }
+    Files.deleteIfExists(socketPath);
+  }
+}
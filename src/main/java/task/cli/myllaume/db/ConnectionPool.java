@@ -0,0 +1,284 @@
+package task.cli.myllaume.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool borné de connexions SQLite, partagé par tous les repositories qui pointent vers la même
+ * base. Les connexions rendues par {@link #getConnection()} sont des poignées logiques : leur
+ * {@code close()} remet la connexion physique dans le pool au lieu de fermer le fichier.
+ */
+public class ConnectionPool {
+  public static final int DEFAULT_MAX_SIZE = 4;
+  public static final long DEFAULT_ACQUIRE_TIMEOUT_MILLIS = 30_000;
+
+  private static final Map<String, ConnectionPool> pools = new ConcurrentHashMap<>();
+  private static volatile int defaultMaxSize = DEFAULT_MAX_SIZE;
+  private static volatile int defaultCacheSizeKib = 0;
+
+  static {
+    Runtime.getRuntime().addShutdownHook(new Thread(ConnectionPool::closeAll));
+  }
+
+  private final String url;
+  private final PragmaProfile profile;
+  private final long acquireTimeoutMillis;
+  private final int cacheSizeKib;
+  private final Semaphore permits;
+  private final Deque<Connection> idle = new ArrayDeque<>();
+  private boolean closed = false;
+  private volatile boolean schemaReady = false;
+  private volatile Integer currentProjectId = null;
+
+  public ConnectionPool(String url, int maxSize, long acquireTimeoutMillis) {
+    this(url, PragmaProfile.DURABLE, maxSize, acquireTimeoutMillis);
+  }
+
+  public ConnectionPool(String url, PragmaProfile profile, int maxSize, long acquireTimeoutMillis) {
+    this(url, profile, maxSize, acquireTimeoutMillis, 0);
+  }
+
+  /**
+   * @param cacheSizeKib Taille du cache de pages SQLite en Kio, 0 pour garder celle du profil
+   */
+  public ConnectionPool(
+      String url, PragmaProfile profile, int maxSize, long acquireTimeoutMillis, int cacheSizeKib) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Pool size must be a positive integer");
+    }
+    if (cacheSizeKib < 0) {
+      throw new IllegalArgumentException("Cache size cannot be negative");
+    }
+
+    this.url = url;
+    this.profile = profile;
+    this.acquireTimeoutMillis = acquireTimeoutMillis;
+    this.cacheSizeKib = cacheSizeKib;
+    this.permits = new Semaphore(maxSize, true);
+  }
+
+  public static ConnectionPool forUrl(String url, PragmaProfile profile) {
+    return pools.computeIfAbsent(
+        url + "#" + profile.getName(),
+        key ->
+            new ConnectionPool(
+                url, profile, defaultMaxSize, DEFAULT_ACQUIRE_TIMEOUT_MILLIS, defaultCacheSizeKib));
+  }
+
+  /**
+   * Réglages des pools créés ensuite par {@link #forUrl}, lus dans la configuration au démarrage.
+   *
+   * @param cacheSizeKib Taille du cache de pages SQLite en Kio, 0 pour garder celle du profil
+   */
+  public static void configure(int maxSize, int cacheSizeKib) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Pool size must be a positive integer");
+    }
+    if (cacheSizeKib < 0) {
+      throw new IllegalArgumentException("Cache size cannot be negative");
+    }
+    defaultMaxSize = maxSize;
+    defaultCacheSizeKib = cacheSizeKib;
+  }
+
+  public static void closeAll() {
+    for (ConnectionPool pool : pools.values()) {
+      pool.close();
+    }
+    pools.clear();
+  }
+
+  public Connection getConnection() throws SQLException {
+    try {
+      if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+        throw new SQLException("Timeout while waiting for a database connection: " + url);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while waiting for a database connection", e);
+    }
+
+    Connection physical;
+    synchronized (this) {
+      if (closed) {
+        permits.release();
+        throw new SQLException("Connection pool is closed: " + url);
+      }
+      physical = idle.pollFirst();
+    }
+
+    try {
+      if (physical == null || physical.isClosed()) {
+        physical = openConnection();
+      }
+    } catch (SQLException e) {
+      permits.release();
+      throw e;
+    }
+
+    return wrap(physical);
+  }
+
+  protected Connection openConnection() throws SQLException {
+    Connection conn = DriverManager.getConnection(url);
+    try (Statement stmt = conn.createStatement()) {
+      for (String pragma : profile.getPragmas()) {
+        stmt.execute(pragma);
+      }
+      if (cacheSizeKib > 0) {
+        stmt.execute("PRAGMA cache_size = -" + cacheSizeKib);
+      }
+    } catch (SQLException e) {
+      closeQuietly(conn);
+      throw e;
+    }
+    return conn;
+  }
+
+  public synchronized int getIdleCount() {
+    return idle.size();
+  }
+
+  public String getUrl() {
+    return url;
+  }
+
+  public PragmaProfile getProfile() {
+    return profile;
+  }
+
+  public boolean isSchemaReady() {
+    return schemaReady;
+  }
+
+  public void setSchemaReady(boolean schemaReady) {
+    this.schemaReady = schemaReady;
+    if (!schemaReady) {
+      this.currentProjectId = null;
+    }
+  }
+
+  /**
+   * @return Id du projet courant mis en cache par {@link ProjectsRepository}, null s'il est inconnu
+   */
+  public Integer getCurrentProjectId() {
+    return currentProjectId;
+  }
+
+  public void setCurrentProjectId(Integer currentProjectId) {
+    this.currentProjectId = currentProjectId;
+  }
+
+  public void close() {
+    Deque<Connection> toClose;
+    synchronized (this) {
+      closed = true;
+      toClose = new ArrayDeque<>(idle);
+      idle.clear();
+    }
+
+    Connection first = toClose.peekFirst();
+    if (first != null) {
+      // Recalcule les statistiques des tables qui en ont besoin, recommandé avant fermeture
+      try (Statement stmt = first.createStatement()) {
+        stmt.execute("PRAGMA optimize");
+      } catch (SQLException e) {
+        // Les statistiques seront mises à jour à la prochaine fermeture
+      }
+    }
+
+    for (Connection conn : toClose) {
+      closeQuietly(conn);
+    }
+  }
+
+  private void release(Connection physical) {
+    try {
+      if (!physical.isClosed() && !physical.getAutoCommit()) {
+        physical.rollback();
+        physical.setAutoCommit(true);
+      }
+
+      synchronized (this) {
+        if (!closed && !physical.isClosed()) {
+          idle.addFirst(physical);
+          return;
+        }
+      }
+      closeQuietly(physical);
+    } catch (SQLException e) {
+      closeQuietly(physical);
+    } finally {
+      permits.release();
+    }
+  }
+
+  private static void closeQuietly(Connection conn) {
+    try {
+      conn.close();
+    } catch (SQLException e) {
+      // La connexion est abandonnée de toute façon
+    }
+  }
+
+  private Connection wrap(Connection physical) {
+    return (Connection)
+        Proxy.newProxyInstance(
+            ConnectionPool.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            new PooledConnectionHandler(physical));
+  }
+
+  private class PooledConnectionHandler implements InvocationHandler {
+    private final Connection physical;
+    private boolean released = false;
+
+    PooledConnectionHandler(Connection physical) {
+      this.physical = physical;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "close":
+          if (!released) {
+            released = true;
+            release(physical);
+          }
+          return null;
+        case "isClosed":
+          return released || physical.isClosed();
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "toString":
+          return "PooledConnection[" + url + "]";
+        default:
+          break;
+      }
+
+      if (released) {
+        throw new SQLException("Connection is closed");
+      }
+
+      try {
+        return method.invoke(physical, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+  }
+}
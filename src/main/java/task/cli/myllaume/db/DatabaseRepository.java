@@ -1,15 +1,38 @@
 package task.cli.myllaume.db;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import task.cli.myllaume.utils.Validators;
 
 public abstract class DatabaseRepository {
+  public static final int FETCH_SIZE = 256;
+
+  @FunctionalInterface
+  protected interface StatementBinder {
+    void bind(PreparedStatement pstmt) throws SQLException;
+  }
+
+  @FunctionalInterface
+  protected interface RowMapper<T> {
+    T map(ResultSet rs) throws SQLException;
+  }
+
   protected final String url;
+  private final ConnectionPool pool;
 
   public DatabaseRepository(String dbPath) {
+    this(dbPath, PragmaProfile.DURABLE);
+  }
+
+  public DatabaseRepository(String dbPath, PragmaProfile profile) {
     Validators.throwNullOrEmptyString(dbPath, "Database path cannot be null or empty");
 
     String normalizedPath = dbPath.trim();
@@ -18,68 +41,101 @@ public abstract class DatabaseRepository {
     }
 
     this.url = "jdbc:sqlite:" + normalizedPath + "tasks.db?foreign_keys=on";
+    this.pool = ConnectionPool.forUrl(this.url, profile);
   }
 
+  /** Connexion du pool, dont les requêtes sont mesurées par {@link QueryStats} s'il est activé. */
   protected Connection getConnection() throws SQLException {
-    return DriverManager.getConnection(url);
+    if (!QueryStats.isEnabled()) {
+      return pool.getConnection();
+    }
+    long start = System.nanoTime();
+    Connection conn = pool.getConnection();
+    return QueryStats.instrument(conn, System.nanoTime() - start);
   }
 
-  public void initTables() throws SQLException {
-    try (Connection conn = getConnection()) {
-      try (Statement stmt = conn.createStatement()) {
-        createTasksTable(stmt);
-        createProjectsTable(stmt);
-        createTimelogsTable(stmt);
+  public ConnectionPool getPool() {
+    return pool;
+  }
 
-        stmt.execute("ANALYZE");
-      }
+  /**
+   * Exécute une requête et parcourt son {@link ResultSet} ligne par ligne. La connexion reste
+   * ouverte tant que le {@code Stream} n'est pas fermé : il doit être utilisé dans un
+   * try-with-resources. Les erreurs de lecture sont levées en {@link UncheckedSQLException}.
+   */
+  protected <T> Stream<T> streamQuery(String sql, StatementBinder binder, RowMapper<T> mapper)
+      throws SQLException {
+    Connection conn = getConnection();
+    PreparedStatement pstmt = null;
+    ResultSet rs = null;
+    try {
+      pstmt = conn.prepareStatement(sql);
+      pstmt.setFetchSize(FETCH_SIZE);
+      binder.bind(pstmt);
+      rs = pstmt.executeQuery();
+    } catch (SQLException e) {
+      closeAll(rs, pstmt, conn);
+      throw e;
     }
-  }
 
-  private void createTasksTable(Statement stmt) throws SQLException {
-    stmt.execute(
-        """
-        CREATE TABLE IF NOT EXISTS tasks (
-            id INTEGER PRIMARY KEY AUTOINCREMENT,
-            name TEXT NOT NULL,
-            completed INTEGER NOT NULL,
-            fulltext TEXT NOT NULL,
-            priority INTEGER NOT NULL,
-            created_at INTEGER NOT NULL,
-            due_at INTEGER NULL,
-            done_at INTEGER NULL,
-            parent_id INTEGER NULL,
-            project_id INTEGER NOT NULL,
-            CONSTRAINT fk_parent FOREIGN KEY (parent_id) REFERENCES tasks(id) ON DELETE CASCADE,
-            CONSTRAINT fk_project FOREIGN KEY (project_id) REFERENCES projects(id) ON DELETE CASCADE
-        )
-        """);
+    ResultSet results = rs;
+    PreparedStatement statement = pstmt;
+    Spliterator<T> spliterator =
+        new Spliterators.AbstractSpliterator<T>(
+            Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+          @Override
+          public boolean tryAdvance(Consumer<? super T> action) {
+            try {
+              if (!results.next()) {
+                return false;
+              }
+              action.accept(mapper.map(results));
+              return true;
+            } catch (SQLException e) {
+              throw new UncheckedSQLException(e);
+            }
+          }
+        };
+
+    return StreamSupport.stream(spliterator, false)
+        .onClose(
+            () -> {
+              try {
+                closeAll(results, statement, conn);
+              } catch (SQLException e) {
+                throw new UncheckedSQLException(e);
+              }
+            });
   }
 
-  private void createProjectsTable(Statement stmt) throws SQLException {
-    stmt.execute(
-        """
-        CREATE TABLE IF NOT EXISTS projects (
-            id INTEGER PRIMARY KEY AUTOINCREMENT,
-            name TEXT NOT NULL UNIQUE,
-            fulltext TEXT NOT NULL,
-            created_at INTEGER NOT NULL,
-            is_current INTEGER NOT NULL DEFAULT 0
-        )
-        """);
+  private static void closeAll(AutoCloseable... resources) throws SQLException {
+    SQLException error = null;
+    for (AutoCloseable resource : resources) {
+      if (resource == null) {
+        continue;
+      }
+      try {
+        resource.close();
+      } catch (Exception e) {
+        if (error == null) {
+          error = e instanceof SQLException ? (SQLException) e : new SQLException(e);
+        }
+      }
+    }
+    if (error != null) {
+      throw error;
+    }
   }
 
-  private void createTimelogsTable(Statement stmt) throws SQLException {
-    stmt.execute(
-        """
-        CREATE TABLE IF NOT EXISTS timelogs (
-            id INTEGER PRIMARY KEY AUTOINCREMENT,
-            task_id INTEGER NOT NULL,
-            started_at INTEGER NOT NULL,
-            stopped_at INTEGER NOT NULL,
-            FOREIGN KEY (task_id) REFERENCES tasks(id) ON DELETE CASCADE
-        )
-        """);
+  public void initTables() throws SQLException {
+    if (pool.isSchemaReady()) {
+      return;
+    }
+
+    try (Connection conn = getConnection()) {
+      SchemaMigrations.migrate(conn);
+      pool.setSchemaReady(true);
+    }
   }
 
   public void dropTables() throws SQLException {
@@ -88,16 +144,41 @@ public abstract class DatabaseRepository {
 
         stmt.execute("PRAGMA foreign_keys = OFF");
 
+        stmt.execute("DROP TABLE IF EXISTS tasks_fts");
+        stmt.execute("DROP TABLE IF EXISTS projects_fts");
+        stmt.execute("DROP TABLE IF EXISTS task_counters");
+        stmt.execute("DROP TABLE IF EXISTS task_closure");
+        stmt.execute("DROP TABLE IF EXISTS csv_import_ids");
+        stmt.execute("DROP TABLE IF EXISTS csv_imports");
         stmt.execute("DROP TABLE IF EXISTS timelogs");
         stmt.execute("DROP TABLE IF EXISTS tasks");
         stmt.execute("DROP TABLE IF EXISTS projects");
+        stmt.execute("PRAGMA user_version = 0");
+        pool.setSchemaReady(false);
 
       } catch (SQLException e) {
         throw new SQLException("Error while dropping tables: " + e.getMessage(), e);
+      } finally {
+        // La connexion retourne dans le pool : elle doit garder les clés étrangères actives
+        try (Statement stmt = conn.createStatement()) {
+          stmt.execute("PRAGMA foreign_keys = ON");
+        }
       }
     }
   }
 
+  /**
+   * Le tokenizer trigram ne sait pas chercher moins de trois caractères : en dessous, les
+   * recherches retombent sur un {@code LIKE}.
+   */
+  protected static boolean isFulltextSearchable(String normalizedKeyword) {
+    return normalizedKeyword.length() >= 3;
+  }
+
+  protected static String toFulltextQuery(String normalizedKeyword) {
+    return "\"" + normalizedKeyword.replace("\"", "\"\"") + "\"";
+  }
+
   public String getUrl() {
     return this.url;
   }
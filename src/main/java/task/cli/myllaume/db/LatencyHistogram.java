@@ -0,0 +1,126 @@
+package task.cli.myllaume.db;
+
+/**
+ * Histogramme de durées en microsecondes, découpé comme HdrHistogram : chaque puissance de deux est
+ * divisée en {@value #SUB_BUCKETS} intervalles égaux, soit une erreur relative inférieure à 7 % sur
+ * les percentiles, quelle que soit l'échelle, pour un tableau de taille fixe.
+ */
+public class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKET_COUNT = indexOf(Long.MAX_VALUE) + 1;
+
+  private final long[] counts = new long[BUCKET_COUNT];
+  private long totalCount;
+  private long totalMicros;
+  private long maxMicros;
+
+  static int indexOf(long micros) {
+    if (micros < 2 * SUB_BUCKETS) {
+      return (int) Math.max(micros, 0);
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+    return shift * SUB_BUCKETS + (int) (micros >> shift);
+  }
+
+  /**
+   * @return Plus petite valeur rangée dans l'intervalle {@code index}
+   */
+  static long lowestValueAt(int index) {
+    if (index < 2 * SUB_BUCKETS) {
+      return index;
+    }
+    int shift = index / SUB_BUCKETS - 1;
+    return (long) (index % SUB_BUCKETS + SUB_BUCKETS) << shift;
+  }
+
+  public void record(long micros) {
+    counts[indexOf(micros)]++;
+    totalCount++;
+    totalMicros += micros;
+    maxMicros = Math.max(maxMicros, micros);
+  }
+
+  public void add(LatencyHistogram other) {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      counts[i] += other.counts[i];
+    }
+    totalCount += other.totalCount;
+    totalMicros += other.totalMicros;
+    maxMicros = Math.max(maxMicros, other.maxMicros);
+  }
+
+  public long getCount() {
+    return totalCount;
+  }
+
+  public long getTotalMicros() {
+    return totalMicros;
+  }
+
+  public long getMaxMicros() {
+    return maxMicros;
+  }
+
+  /**
+   * @param percentile Entre 0 et 100
+   * @return Borne haute de l'intervalle qui contient le percentile, 0 si rien n'a été mesuré
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (totalCount == 0) {
+      return 0;
+    }
+
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        long highest = i + 1 < BUCKET_COUNT ? lowestValueAt(i + 1) - 1 : Long.MAX_VALUE;
+        return Math.min(highest, maxMicros);
+      }
+    }
+    return maxMicros;
+  }
+
+  /**
+   * @return Forme texte {@code total;max;index:nombre,...}, relue par {@link #decode(String)}
+   */
+  public String encode() {
+    StringBuilder builder = new StringBuilder();
+    builder.append(totalMicros).append(';').append(maxMicros).append(';');
+    boolean first = true;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      if (counts[i] == 0) {
+        continue;
+      }
+      if (!first) {
+        builder.append(',');
+      }
+      builder.append(i).append(':').append(counts[i]);
+      first = false;
+    }
+    return builder.toString();
+  }
+
+  public static LatencyHistogram decode(String encoded) {
+    String[] parts = encoded.split(";", -1);
+    if (parts.length != 3) {
+      throw new IllegalArgumentException("Histogramme invalide : " + encoded);
+    }
+
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.totalMicros = Long.parseLong(parts[0]);
+    histogram.maxMicros = Long.parseLong(parts[1]);
+    if (!parts[2].isEmpty()) {
+      for (String bucket : parts[2].split(",")) {
+        int separator = bucket.indexOf(':');
+        int index = Integer.parseInt(bucket.substring(0, separator));
+        long count = Long.parseLong(bucket.substring(separator + 1));
+        histogram.counts[index] += count;
+        histogram.totalCount += count;
+      }
+    }
+    return histogram;
+  }
+}
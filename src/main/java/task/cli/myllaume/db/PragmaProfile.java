@@ -0,0 +1,53 @@
+package task.cli.myllaume.db;
+
+import java.util.List;
+
+/**
+ * Réglages SQLite appliqués à chaque ouverture de connexion. Les deux profils utilisent le journal
+ * WAL pour que les lectures ne soient pas bloquées par une écriture en cours.
+ */
+public enum PragmaProfile {
+  DURABLE(
+      "durable",
+      List.of(
+          "PRAGMA journal_mode = WAL",
+          "PRAGMA synchronous = FULL",
+          "PRAGMA temp_store = DEFAULT",
+          "PRAGMA mmap_size = 0",
+          "PRAGMA cache_size = -2000",
+          "PRAGMA busy_timeout = 5000")),
+  FAST(
+      "fast",
+      List.of(
+          "PRAGMA journal_mode = WAL",
+          "PRAGMA synchronous = NORMAL",
+          "PRAGMA temp_store = MEMORY",
+          "PRAGMA mmap_size = 268435456",
+          "PRAGMA cache_size = -65536",
+          "PRAGMA busy_timeout = 5000"));
+
+  private final String name;
+  private final List<String> pragmas;
+
+  PragmaProfile(String name, List<String> pragmas) {
+    this.name = name;
+    this.pragmas = pragmas;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public List<String> getPragmas() {
+    return pragmas;
+  }
+
+  public static PragmaProfile fromName(String name) {
+    for (PragmaProfile p : values()) {
+      if (p.name.equalsIgnoreCase(name.trim())) {
+        return p;
+      }
+    }
+    throw new IllegalArgumentException("Profil de pragmas inconnu : " + name);
+  }
+}
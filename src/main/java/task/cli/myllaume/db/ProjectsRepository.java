@@ -21,6 +21,10 @@ public class ProjectsRepository extends DatabaseRepository {
     super(dbPath);
   }
 
+  public ProjectsRepository(String dbPath, PragmaProfile profile) {
+    super(dbPath, profile);
+  }
+
   public ProjectDb createProject(ProjectData data) throws Exception {
     String sql =
         """
@@ -67,7 +71,9 @@ public class ProjectsRepository extends DatabaseRepository {
 
       try (ResultSet rs = pstmt.executeQuery()) {
         if (rs.next()) {
-          return ProjectDb.fromSqlResult(rs);
+          ProjectDb project = ProjectDb.fromSqlResult(rs);
+          getPool().setCurrentProjectId(project.getId());
+          return project;
         } else {
           throw new IllegalStateException(
               "Impossible de créer le projet par défaut : un projet existe déjà.");
@@ -77,33 +83,45 @@ public class ProjectsRepository extends DatabaseRepository {
   }
 
   public ProjectDb getCurrentProject() throws Exception {
-    String sql =
-        """
-        SELECT id, name, fulltext, created_at,
-          (SELECT COUNT(*) FROM projects WHERE is_current = 1) as current_count
-        FROM projects
-        WHERE is_current = 1
-        """;
+    // L'index unique idx_projects_current_unique garantit au plus un projet courant
+    String sql = "SELECT id, name, fulltext, created_at FROM projects WHERE is_current = 1";
 
     try (Connection conn = getConnection();
         PreparedStatement pstmt = conn.prepareStatement(sql);
         ResultSet rs = pstmt.executeQuery()) {
 
       if (rs.next()) {
-        int currentCount = rs.getInt("current_count");
-        if (currentCount > 1) {
-          throw new IllegalStateException(
-              "Database integrity error: multiple projects marked as current ("
-                  + currentCount
-                  + ")");
-        }
-        return ProjectDb.fromSqlResult(rs);
+        ProjectDb project = ProjectDb.fromSqlResult(rs);
+        getPool().setCurrentProjectId(project.getId());
+        return project;
       } else {
         return null;
       }
     }
   }
 
+  /**
+   * Id du projet courant, mis en cache pour toute la base : seule la première lecture interroge
+   * {@code projects}. Le cache suit {@link #updateCurrentProject(int)} et {@link #dropTables()},
+   * mais pas les changements faits par un autre processus : voir {@link
+   * #invalidateCurrentProject()}.
+   *
+   * @return null s'il n'y a pas de projet courant
+   */
+  public Integer getCurrentProjectId() throws Exception {
+    Integer cached = getPool().getCurrentProjectId();
+    if (cached != null) {
+      return cached;
+    }
+
+    ProjectDb project = getCurrentProject();
+    return project == null ? null : project.getId();
+  }
+
+  public void invalidateCurrentProject() {
+    getPool().setCurrentProjectId(null);
+  }
+
   public boolean hasCurrentProject() throws Exception {
     String sql = "SELECT EXISTS(SELECT 1 FROM projects WHERE is_current = 1) AS has_current";
 
@@ -143,6 +161,7 @@ public class ProjectsRepository extends DatabaseRepository {
         }
 
         conn.commit();
+        getPool().setCurrentProjectId(result.getId());
         return result;
       } catch (Exception e) {
         conn.rollback();
@@ -171,10 +190,10 @@ public class ProjectsRepository extends DatabaseRepository {
   }
 
   public ProjectDb removeProject(int id) throws Exception {
-    ProjectDb currentProject = getCurrentProject();
-    Objects.requireNonNull(currentProject, "Current project cannot be null to delete a project");
+    Integer currentProjectId = getCurrentProjectId();
+    Objects.requireNonNull(currentProjectId, "Current project cannot be null to delete a project");
 
-    if (id == currentProject.getId()) {
+    if (id == currentProjectId) {
       throw new IllegalStateException("Cannot delete the current project");
     }
 
@@ -212,20 +231,35 @@ public class ProjectsRepository extends DatabaseRepository {
   }
 
   public ArrayList<ProjectDb> searchProjects(String keyword, int limit) throws Exception {
-    String sql =
-        """
-        SELECT id, name, fulltext, created_at
-        FROM projects
-        WHERE fulltext LIKE ?
-        ORDER BY name ASC LIMIT ?
-        """;
+    keyword = StringUtils.normalizeString(keyword);
+
+    String sql;
+    String pattern;
+    if (isFulltextSearchable(keyword)) {
+      sql =
+          """
+          SELECT projects.id, projects.name, projects.fulltext, projects.created_at
+          FROM projects_fts
+          JOIN projects ON projects.id = projects_fts.rowid
+          WHERE projects_fts MATCH ?
+          ORDER BY projects.name ASC LIMIT ?
+          """;
+      pattern = toFulltextQuery(keyword);
+    } else {
+      sql =
+          """
+          SELECT id, name, fulltext, created_at
+          FROM projects
+          WHERE fulltext LIKE ?
+          ORDER BY name ASC LIMIT ?
+          """;
+      pattern = "%" + keyword + "%";
+    }
 
     try (Connection conn = getConnection();
         PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-      keyword = StringUtils.normalizeString(keyword);
-
-      pstmt.setString(1, "%" + keyword + "%");
+      pstmt.setString(1, pattern);
       pstmt.setInt(2, limit);
       try (ResultSet rs = pstmt.executeQuery()) {
         ArrayList<ProjectDb> projects = new ArrayList<>();
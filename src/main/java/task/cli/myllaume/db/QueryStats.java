@@ -0,0 +1,442 @@
+package task.cli.myllaume.db;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Mesure des requêtes SQL passées par {@link DatabaseRepository#getConnection()} : durée de chaque
+ * requête, nombre de lignes lues ou modifiées, et attente d'une connexion du pool. Les mesures sont
+ * regroupées par texte de requête dans des {@link LatencyHistogram}.
+ *
+ * <p>La durée d'une requête est le temps passé dans le pilote : son exécution, puis chaque appel à
+ * {@link ResultSet#next()} et la fermeture des résultats. Le travail de l'appelant entre deux
+ * lignes n'est pas compté, même quand les résultats sont parcourus en flux jusqu'à l'affichage.
+ *
+ * <p>Rien n'est mesuré tant que {@link #configure(boolean, Path, long)} n'a pas activé les mesures
+ * : les connexions ne sont alors pas enveloppées. Une fois activées, {@link #flush()} ajoute les
+ * mesures du processus au fichier {@value #STATS_FILE} du dossier de cache, et les requêtes plus
+ * lentes que le seuil sont écrites au fil de l'eau dans {@value #SLOW_LOG_FILE}.
+ */
+public final class QueryStats {
+  public static final String STATS_FILE = "query-stats.tsv";
+  public static final String SLOW_LOG_FILE = "slow-queries.log";
+  public static final String LOCK_FILE = "query-stats.lock";
+  public static final String ACQUIRE_KEY = "(attente d'une connexion)";
+  public static final long DEFAULT_SLOW_QUERY_MILLIS = 100;
+
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+
+  private static final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  private static volatile boolean enabled = false;
+  private static volatile Path cacheDir;
+  private static volatile long slowQueryMicros = DEFAULT_SLOW_QUERY_MILLIS * 1000;
+
+  /** Mesures cumulées d'une requête. */
+  public static class Entry {
+    private final String sql;
+    private final LatencyHistogram histogram;
+    private long rows;
+
+    Entry(String sql, LatencyHistogram histogram, long rows) {
+      this.sql = sql;
+      this.histogram = histogram;
+      this.rows = rows;
+    }
+
+    synchronized void record(long micros, long rows) {
+      histogram.record(micros);
+      this.rows += rows;
+    }
+
+    synchronized void add(Entry other) {
+      histogram.add(other.histogram);
+      rows += other.rows;
+    }
+
+    synchronized Entry copy() {
+      LatencyHistogram histogramCopy = new LatencyHistogram();
+      histogramCopy.add(histogram);
+      return new Entry(sql, histogramCopy, rows);
+    }
+
+    public String getSql() {
+      return sql;
+    }
+
+    public LatencyHistogram getHistogram() {
+      return histogram;
+    }
+
+    public long getRows() {
+      return rows;
+    }
+  }
+
+  private QueryStats() {}
+
+  /**
+   * @param enabled Mesurer les requêtes des connexions obtenues ensuite
+   * @param cacheDir Dossier du fichier de mesures et du journal des requêtes lentes
+   * @param slowQueryMillis Seuil du journal des requêtes lentes, 0 pour ne pas le tenir
+   */
+  public static void configure(boolean enabled, Path cacheDir, long slowQueryMillis) {
+    if (slowQueryMillis < 0) {
+      throw new IllegalArgumentException("Slow query threshold must not be negative");
+    }
+    QueryStats.enabled = enabled;
+    QueryStats.cacheDir = cacheDir;
+    QueryStats.slowQueryMicros = slowQueryMillis * 1000;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /** Regroupe les requêtes qui ne diffèrent que par leurs espaces ou leur nombre de paramètres. */
+  static String normalize(String sql) {
+    String normalized = WHITESPACE.matcher(sql.strip()).replaceAll(" ");
+    return PLACEHOLDER_LIST.matcher(normalized).replaceAll("?, ...");
+  }
+
+  static void record(String sql, long micros, long rows) {
+    entries
+        .computeIfAbsent(sql, key -> new Entry(key, new LatencyHistogram(), 0))
+        .record(micros, rows);
+
+    Path dir = cacheDir;
+    if (dir != null
+        && slowQueryMicros > 0
+        && micros >= slowQueryMicros
+        && !sql.equals(ACQUIRE_KEY)) {
+      String line =
+          Instant.now()
+              + "\t"
+              + String.format("%.2f ms", micros / 1000.0)
+              + "\t"
+              + rows
+              + " ligne(s)\t"
+              + sql
+              + "\n";
+      try {
+        Files.writeString(
+            dir.resolve(SLOW_LOG_FILE),
+            line,
+            StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.APPEND);
+      } catch (IOException e) {
+        // Le journal est une aide au diagnostic, il ne doit pas faire échouer la requête
+      }
+    }
+  }
+
+  /**
+   * @return Mesures du processus, triées par temps total décroissant
+   */
+  public static List<Entry> snapshot() {
+    List<Entry> copies = new ArrayList<>();
+    for (Entry entry : entries.values()) {
+      copies.add(entry.copy());
+    }
+    return sortByTotalTime(copies);
+  }
+
+  /**
+   * @return Mesures enregistrées dans le dossier de cache et celles du processus pas encore écrites
+   */
+  public static List<Entry> load() throws IOException {
+    Map<String, Entry> merged = readFile();
+    for (Entry entry : snapshot()) {
+      merged.merge(entry.getSql(), entry, QueryStats::combine);
+    }
+    return sortByTotalTime(new ArrayList<>(merged.values()));
+  }
+
+  /**
+   * Ajoute les mesures du processus au fichier du dossier de cache, puis les oublie. La lecture et
+   * la réécriture du fichier se font sous le verrou {@value #LOCK_FILE} : sans lui, deux processus
+   * qui terminent en même temps perdraient les mesures de l'un des deux.
+   */
+  public static synchronized void flush() throws IOException {
+    Path dir = cacheDir;
+    if (!enabled || dir == null || entries.isEmpty()) {
+      return;
+    }
+
+    try (FileChannel channel = openLock(dir);
+        FileLock lock = channel.lock()) {
+      Map<String, Entry> merged = readFile();
+      for (String sql : new ArrayList<>(entries.keySet())) {
+        Entry entry = entries.remove(sql);
+        if (entry != null) {
+          merged.merge(sql, entry.copy(), QueryStats::combine);
+        }
+      }
+      write(dir, sortByTotalTime(new ArrayList<>(merged.values())));
+    }
+  }
+
+  /** Efface les mesures du processus et celles du dossier de cache. */
+  public static synchronized void reset() throws IOException {
+    entries.clear();
+    Path dir = cacheDir;
+    if (dir != null) {
+      try (FileChannel channel = openLock(dir);
+          FileLock lock = channel.lock()) {
+        Files.deleteIfExists(dir.resolve(STATS_FILE));
+      }
+    }
+  }
+
+  private static FileChannel openLock(Path dir) throws IOException {
+    return FileChannel.open(
+        dir.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+  }
+
+  private static Entry combine(Entry a, Entry b) {
+    a.add(b);
+    return a;
+  }
+
+  private static List<Entry> sortByTotalTime(List<Entry> list) {
+    list.sort(
+        Comparator.comparingLong((Entry entry) -> entry.getHistogram().getTotalMicros())
+            .reversed());
+    return list;
+  }
+
+  private static Map<String, Entry> readFile() throws IOException {
+    Map<String, Entry> result = new HashMap<>();
+    Path dir = cacheDir;
+    if (dir == null || !Files.exists(dir.resolve(STATS_FILE))) {
+      return result;
+    }
+
+    try (BufferedReader reader =
+        Files.newBufferedReader(dir.resolve(STATS_FILE), StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        String[] parts = line.split("\t", 3);
+        if (parts.length != 3) {
+          continue;
+        }
+        try {
+          result.put(
+              parts[2],
+              new Entry(parts[2], LatencyHistogram.decode(parts[1]), Long.parseLong(parts[0])));
+        } catch (IllegalArgumentException e) {
+          // Ligne abîmée : elle est abandonnée à la prochaine écriture
+        }
+      }
+    }
+    return result;
+  }
+
+  private static void write(Path dir, List<Entry> list) throws IOException {
+    StringBuilder content = new StringBuilder();
+    for (Entry entry : list) {
+      content
+          .append(entry.getRows())
+          .append('\t')
+          .append(entry.getHistogram().encode())
+          .append('\t')
+          .append(entry.getSql())
+          .append('\n');
+    }
+
+    // Écriture atomique : un autre processus ne lit jamais un fichier à moitié écrit
+    Path tmp = Files.createTempFile(dir, STATS_FILE, ".tmp");
+    Files.writeString(tmp, content, StandardCharsets.UTF_8);
+    Files.move(
+        tmp,
+        dir.resolve(STATS_FILE),
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Enveloppe une connexion du pool : ses requêtes sont mesurées.
+   *
+   * @param acquireNanos Temps passé à obtenir la connexion du pool
+   */
+  static Connection instrument(Connection conn, long acquireNanos) {
+    record(ACQUIRE_KEY, acquireNanos / 1000, 0);
+    return proxy(Connection.class, new ConnectionHandler(conn));
+  }
+
+  private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+    return type.cast(
+        Proxy.newProxyInstance(QueryStats.class.getClassLoader(), new Class<?>[] {type}, handler));
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static class ConnectionHandler implements InvocationHandler {
+    private final Connection target;
+
+    ConnectionHandler(Connection target) {
+      this.target = target;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      Object result = QueryStats.invoke(target, method, args);
+      if (method.getName().equals("prepareStatement")) {
+        return proxy(
+            PreparedStatement.class,
+            new StatementHandler((Statement) result, normalize((String) args[0])));
+      }
+      if (method.getName().equals("createStatement")) {
+        return proxy(Statement.class, new StatementHandler((Statement) result, null));
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Une mesure cumule le temps des appels au pilote, de l'exécution à la fermeture des résultats.
+   */
+  private static class Measurement {
+    private final String sql;
+    private long nanos;
+    private long rows;
+    private boolean done = false;
+
+    Measurement(String sql) {
+      this.sql = sql;
+    }
+
+    Object time(Object target, Method method, Object[] args) throws Throwable {
+      long start = System.nanoTime();
+      try {
+        return QueryStats.invoke(target, method, args);
+      } finally {
+        nanos += System.nanoTime() - start;
+      }
+    }
+
+    void finish() {
+      if (!done) {
+        done = true;
+        record(sql, nanos / 1000, rows);
+      }
+    }
+  }
+
+  private static class StatementHandler implements InvocationHandler {
+    private final Statement target;
+    private final String sql;
+    private Measurement pending;
+
+    /**
+     * @param sql Requête préparée, null pour un {@link Statement} qui la reçoit à l'exécution
+     */
+    StatementHandler(Statement target, String sql) {
+      this.target = target;
+      this.sql = sql;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      if (name.equals("close")) {
+        finishPending();
+        return QueryStats.invoke(target, method, args);
+      }
+      if (!name.startsWith("execute")) {
+        return QueryStats.invoke(target, method, args);
+      }
+
+      finishPending();
+      String query = sql;
+      if (query == null) {
+        if (args == null || !(args[0] instanceof String)) {
+          return QueryStats.invoke(target, method, args);
+        }
+        query = normalize((String) args[0]);
+      }
+
+      Measurement measurement = new Measurement(query);
+      Object result = measurement.time(target, method, args);
+
+      if (result instanceof ResultSet) {
+        pending = measurement;
+        return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, measurement));
+      }
+      if (result instanceof Integer || result instanceof Long) {
+        measurement.rows = Math.max(0, ((Number) result).longValue());
+      } else if (result instanceof int[]) {
+        for (int count : (int[]) result) {
+          measurement.rows += Math.max(0, count);
+        }
+      }
+      measurement.finish();
+      return result;
+    }
+
+    private void finishPending() {
+      if (pending != null) {
+        pending.finish();
+        pending = null;
+      }
+    }
+  }
+
+  private static class ResultSetHandler implements InvocationHandler {
+    private final ResultSet target;
+    private final Measurement measurement;
+
+    ResultSetHandler(ResultSet target, Measurement measurement) {
+      this.target = target;
+      this.measurement = measurement;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "next":
+          Object hasRow = measurement.time(target, method, args);
+          if ((Boolean) hasRow) {
+            measurement.rows++;
+          }
+          return hasRow;
+        case "close":
+          Object result = measurement.time(target, method, args);
+          measurement.finish();
+          return result;
+        default:
+          return QueryStats.invoke(target, method, args);
+      }
+    }
+  }
+}
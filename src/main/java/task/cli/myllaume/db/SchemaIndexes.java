@@ -0,0 +1,45 @@
+package task.cli.myllaume.db;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Index secondaires des tables tasks, projects et timelogs. Chaque index correspond à un prédicat
+ * ou à un tri utilisé par un repository. Cette liste est la migration 2 de {@link SchemaMigrations}
+ * : un nouvel index doit être ajouté par une nouvelle migration, pas ici.
+ */
+public class SchemaIndexes {
+  public static final List<String> INDEXES =
+      List.of(
+          // getTasks, exportToCsv : ORDER BY name
+          "CREATE INDEX IF NOT EXISTS idx_tasks_name ON tasks (name)",
+          // getProjectTasks, cascade depuis projects
+          "CREATE INDEX IF NOT EXISTS idx_tasks_project_name ON tasks (project_id, name)",
+          // getTaskTree (parcours récursif), cascade depuis la tâche parente
+          "CREATE INDEX IF NOT EXISTS idx_tasks_parent_name ON tasks (parent_id, name)",
+          // searchTasksTodo, searchTasksDone, completeAllMatching
+          "CREATE INDEX IF NOT EXISTS idx_tasks_completed ON tasks (completed)",
+          // getTasksOrderByPriority
+          """
+          CREATE INDEX IF NOT EXISTS idx_tasks_open_roots ON tasks (priority DESC, id, due_at)
+          WHERE completed = 0 AND parent_id IS NULL
+          """,
+          // getLastTask
+          "CREATE INDEX IF NOT EXISTS idx_tasks_roots ON tasks (id) WHERE parent_id IS NULL",
+          // Remplacé par idx_projects_current_unique (migration 8)
+          "CREATE INDEX IF NOT EXISTS idx_projects_current ON projects (id) WHERE is_current = 1",
+          // getTimelogsByTask, getTotalDurationForTask, cascade depuis tasks
+          """
+          CREATE INDEX IF NOT EXISTS idx_timelogs_task_started
+          ON timelogs (task_id, started_at, stopped_at)
+          """,
+          // getTimelogs
+          "CREATE INDEX IF NOT EXISTS idx_timelogs_started ON timelogs (started_at)");
+
+  public static void create(Statement stmt) throws SQLException {
+    for (String sql : INDEXES) {
+      stmt.execute(sql);
+    }
+  }
+}
@@ -0,0 +1,340 @@
+package task.cli.myllaume.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Migrations du schéma, indexées par {@code PRAGMA user_version}. La migration d'indice {@code i}
+ * fait passer la base de la version {@code i} à la version {@code i + 1} ; une base déjà à jour ne
+ * coûte qu'une lecture de pragma.
+ */
+public class SchemaMigrations {
+
+  @FunctionalInterface
+  interface Migration {
+    void apply(Statement stmt) throws SQLException;
+  }
+
+  private static final List<Migration> MIGRATIONS =
+      List.of(
+          // 1 : tables initiales
+          stmt -> {
+            createTasksTable(stmt);
+            createProjectsTable(stmt);
+            createTimelogsTable(stmt);
+          },
+          // 2 : index secondaires
+          SchemaIndexes::create,
+          // 3 : index plein texte FTS5 sur tasks.fulltext et projects.fulltext
+          stmt -> {
+            createFulltextIndex(stmt, "tasks");
+            createFulltextIndex(stmt, "projects");
+          },
+          // 4 : points de reprise des imports CSV
+          SchemaMigrations::createCsvImportsTable,
+          // 5 : correspondance id du fichier → id de la tâche, pour rattacher les parents
+          SchemaMigrations::createCsvImportIdsTable,
+          // 6 : table de fermeture de la hiérarchie des tâches
+          SchemaMigrations::createTaskClosureTable,
+          // 7 : compteurs de tâches par projet
+          SchemaMigrations::createTaskCountersTable,
+          // 8 : un seul projet courant, garanti par un index unique
+          SchemaMigrations::createUniqueCurrentProjectIndex);
+
+  public static int getLatestVersion() {
+    return MIGRATIONS.size();
+  }
+
+  public static int getVersion(Connection conn) throws SQLException {
+    try (Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+      return rs.next() ? rs.getInt(1) : 0;
+    }
+  }
+
+  /**
+   * @return true si au moins une migration a été appliquée
+   */
+  public static boolean migrate(Connection conn) throws SQLException {
+    if (getVersion(conn) >= getLatestVersion()) {
+      return false;
+    }
+
+    try (Statement stmt = conn.createStatement()) {
+      // Verrou d'écriture immédiat : un autre processus peut migrer en même temps
+      stmt.execute("BEGIN IMMEDIATE");
+      try {
+        int version = getVersion(conn);
+        if (version >= getLatestVersion()) {
+          stmt.execute("COMMIT");
+          return false;
+        }
+
+        for (int i = version; i < getLatestVersion(); i++) {
+          MIGRATIONS.get(i).apply(stmt);
+        }
+        stmt.execute("PRAGMA user_version = " + getLatestVersion());
+        stmt.execute("COMMIT");
+      } catch (SQLException e) {
+        stmt.execute("ROLLBACK");
+        throw e;
+      }
+
+      // Les statistiques ne sont recalculées qu'après un changement de schéma
+      stmt.execute("ANALYZE");
+      return true;
+    }
+  }
+
+  private static void createTasksTable(Statement stmt) throws SQLException {
+    stmt.execute(
+        """
+        CREATE TABLE IF NOT EXISTS tasks (
+            id INTEGER PRIMARY KEY AUTOINCREMENT,
+            name TEXT NOT NULL,
+            completed INTEGER NOT NULL,
+            fulltext TEXT NOT NULL,
+            priority INTEGER NOT NULL,
+            created_at INTEGER NOT NULL,
+            due_at INTEGER NULL,
+            done_at INTEGER NULL,
+            parent_id INTEGER NULL,
+            project_id INTEGER NOT NULL,
+            CONSTRAINT fk_parent FOREIGN KEY (parent_id) REFERENCES tasks(id) ON DELETE CASCADE,
+            CONSTRAINT fk_project FOREIGN KEY (project_id) REFERENCES projects(id) ON DELETE CASCADE
+        )
+        """);
+  }
+
+  private static void createProjectsTable(Statement stmt) throws SQLException {
+    stmt.execute(
+        """
+        CREATE TABLE IF NOT EXISTS projects (
+            id INTEGER PRIMARY KEY AUTOINCREMENT,
+            name TEXT NOT NULL UNIQUE,
+            fulltext TEXT NOT NULL,
+            created_at INTEGER NOT NULL,
+            is_current INTEGER NOT NULL DEFAULT 0
+        )
+        """);
+  }
+
+  private static void createTimelogsTable(Statement stmt) throws SQLException {
+    stmt.execute(
+        """
+        CREATE TABLE IF NOT EXISTS timelogs (
+            id INTEGER PRIMARY KEY AUTOINCREMENT,
+            task_id INTEGER NOT NULL,
+            started_at INTEGER NOT NULL,
+            stopped_at INTEGER NOT NULL,
+            FOREIGN KEY (task_id) REFERENCES tasks(id) ON DELETE CASCADE
+        )
+        """);
+  }
+
+  private static void createCsvImportsTable(Statement stmt) throws SQLException {
+    stmt.execute(
+        """
+        CREATE TABLE IF NOT EXISTS csv_imports (
+            path TEXT PRIMARY KEY,
+            project_id INTEGER NOT NULL,
+            file_size INTEGER NOT NULL,
+            file_modified_at INTEGER NOT NULL,
+            last_line INTEGER NOT NULL,
+            FOREIGN KEY (project_id) REFERENCES projects(id) ON DELETE CASCADE
+        )
+        """);
+  }
+
+  private static void createCsvImportIdsTable(Statement stmt) throws SQLException {
+    stmt.execute(
+        """
+        CREATE TABLE IF NOT EXISTS csv_import_ids (
+            path TEXT NOT NULL,
+            source_id INTEGER NOT NULL,
+            task_id INTEGER NOT NULL,
+            parent_source_id INTEGER NULL,
+            PRIMARY KEY (path, source_id)
+        )
+        """);
+  }
+
+  /**
+   * Une ligne {@code (ancestor, descendant, depth)} par couple ancêtre-descendant, y compris la
+   * tâche elle-même à la profondeur 0. Les triggers la tiennent à jour à l'insertion et au
+   * déplacement d'une tâche ; la suppression passe par les clés étrangères en cascade.
+   */
+  private static void createTaskClosureTable(Statement stmt) throws SQLException {
+    stmt.execute(
+        """
+        CREATE TABLE IF NOT EXISTS task_closure (
+            ancestor INTEGER NOT NULL,
+            descendant INTEGER NOT NULL,
+            depth INTEGER NOT NULL,
+            PRIMARY KEY (ancestor, descendant),
+            FOREIGN KEY (ancestor) REFERENCES tasks(id) ON DELETE CASCADE,
+            FOREIGN KEY (descendant) REFERENCES tasks(id) ON DELETE CASCADE
+        ) WITHOUT ROWID
+        """);
+    // Ancêtres d'une tâche, cascade depuis tasks
+    stmt.execute(
+        """
+        CREATE INDEX IF NOT EXISTS idx_task_closure_descendant
+        ON task_closure (descendant, ancestor, depth)
+        """);
+    stmt.execute(
+        """
+        CREATE TRIGGER IF NOT EXISTS task_closure_insert AFTER INSERT ON tasks BEGIN
+            INSERT INTO task_closure (ancestor, descendant, depth)
+            SELECT ancestor, new.id, depth + 1 FROM task_closure WHERE descendant = new.parent_id
+            UNION ALL
+            SELECT new.id, new.id, 0;
+        END
+        """);
+    // Déplacement d'un sous-arbre : on retire les liens vers les anciens ancêtres puis on
+    // rattache chaque descendant aux ancêtres du nouveau parent
+    stmt.execute(
+        """
+        CREATE TRIGGER IF NOT EXISTS task_closure_move AFTER UPDATE OF parent_id ON tasks
+        WHEN new.parent_id IS NOT old.parent_id BEGIN
+            DELETE FROM task_closure
+            WHERE descendant IN (SELECT descendant FROM task_closure WHERE ancestor = new.id)
+            AND ancestor IN (
+                SELECT ancestor FROM task_closure WHERE descendant = new.id AND depth > 0
+            );
+            INSERT INTO task_closure (ancestor, descendant, depth)
+            SELECT above.ancestor, below.descendant, above.depth + below.depth + 1
+            FROM task_closure AS above
+            JOIN task_closure AS below ON below.ancestor = new.id
+            WHERE above.descendant = new.parent_id;
+        END
+        """);
+    stmt.execute(
+        """
+        WITH RECURSIVE closure(ancestor, descendant, depth) AS (
+            SELECT id, id, 0 FROM tasks
+            UNION ALL
+            SELECT closure.ancestor, tasks.id, closure.depth + 1
+            FROM closure
+            JOIN tasks ON tasks.parent_id = closure.descendant
+        )
+        INSERT INTO task_closure (ancestor, descendant, depth)
+        SELECT ancestor, descendant, depth FROM closure
+        """);
+  }
+
+  /**
+   * Nombre de tâches et de tâches terminées par projet, tenus à jour par triggers : les compteurs
+   * se lisent sans parcourir {@code tasks}.
+   */
+  private static void createTaskCountersTable(Statement stmt) throws SQLException {
+    stmt.execute(
+        """
+        CREATE TABLE IF NOT EXISTS task_counters (
+            project_id INTEGER PRIMARY KEY,
+            total INTEGER NOT NULL DEFAULT 0,
+            done INTEGER NOT NULL DEFAULT 0,
+            FOREIGN KEY (project_id) REFERENCES projects(id) ON DELETE CASCADE
+        )
+        """);
+    stmt.execute(
+        """
+        CREATE TRIGGER IF NOT EXISTS task_counters_insert AFTER INSERT ON tasks BEGIN
+            INSERT INTO task_counters (project_id, total, done)
+            VALUES (new.project_id, 1, new.completed)
+            ON CONFLICT (project_id) DO UPDATE SET
+                total = total + 1,
+                done = done + excluded.done;
+        END
+        """);
+    stmt.execute(
+        """
+        CREATE TRIGGER IF NOT EXISTS task_counters_delete AFTER DELETE ON tasks BEGIN
+            UPDATE task_counters SET total = total - 1, done = done - old.completed
+            WHERE project_id = old.project_id;
+        END
+        """);
+    stmt.execute(
+        """
+        CREATE TRIGGER IF NOT EXISTS task_counters_update
+        AFTER UPDATE OF completed, project_id ON tasks
+        WHEN new.completed IS NOT old.completed OR new.project_id IS NOT old.project_id BEGIN
+            UPDATE task_counters SET total = total - 1, done = done - old.completed
+            WHERE project_id = old.project_id;
+            INSERT INTO task_counters (project_id, total, done)
+            VALUES (new.project_id, 1, new.completed)
+            ON CONFLICT (project_id) DO UPDATE SET
+                total = total + 1,
+                done = done + excluded.done;
+        END
+        """);
+    stmt.execute(
+        """
+        INSERT INTO task_counters (project_id, total, done)
+        SELECT project_id, COUNT(*), SUM(completed) FROM tasks GROUP BY project_id
+        """);
+  }
+
+  /**
+   * Remplace idx_projects_current par un index unique partiel. Une base qui aurait plusieurs
+   * projets courants garde le plus ancien.
+   */
+  private static void createUniqueCurrentProjectIndex(Statement stmt) throws SQLException {
+    stmt.execute(
+        """
+        UPDATE projects SET is_current = 0
+        WHERE is_current = 1 AND id > (SELECT MIN(id) FROM projects WHERE is_current = 1)
+        """);
+    stmt.execute("DROP INDEX IF EXISTS idx_projects_current");
+    stmt.execute(
+        """
+        CREATE UNIQUE INDEX IF NOT EXISTS idx_projects_current_unique
+        ON projects (is_current) WHERE is_current = 1
+        """);
+  }
+
+  /**
+   * Table FTS5 à contenu externe sur la colonne {@code fulltext}, synchronisée par triggers. Le
+   * tokenizer trigram permet la recherche de sous-chaînes, comme l'ancien {@code LIKE '%kw%'}.
+   */
+  private static void createFulltextIndex(Statement stmt, String table) throws SQLException {
+    String fts = table + "_fts";
+
+    stmt.execute(
+        String.format(
+            """
+            CREATE VIRTUAL TABLE IF NOT EXISTS %1$s
+            USING fts5(fulltext, content='%2$s', content_rowid='id', tokenize='trigram')
+            """,
+            fts, table));
+    stmt.execute(
+        String.format(
+            """
+            CREATE TRIGGER IF NOT EXISTS %1$s_insert AFTER INSERT ON %2$s BEGIN
+                INSERT INTO %1$s (rowid, fulltext) VALUES (new.id, new.fulltext);
+            END
+            """,
+            fts, table));
+    stmt.execute(
+        String.format(
+            """
+            CREATE TRIGGER IF NOT EXISTS %1$s_delete AFTER DELETE ON %2$s BEGIN
+                INSERT INTO %1$s (%1$s, rowid, fulltext) VALUES ('delete', old.id, old.fulltext);
+            END
+            """,
+            fts, table));
+    stmt.execute(
+        String.format(
+            """
+            CREATE TRIGGER IF NOT EXISTS %1$s_update AFTER UPDATE OF fulltext ON %2$s BEGIN
+                INSERT INTO %1$s (%1$s, rowid, fulltext) VALUES ('delete', old.id, old.fulltext);
+                INSERT INTO %1$s (rowid, fulltext) VALUES (new.id, new.fulltext);
+            END
+            """,
+            fts, table));
+    stmt.execute(String.format("INSERT INTO %1$s (%1$s) VALUES ('rebuild')", fts));
+  }
+}
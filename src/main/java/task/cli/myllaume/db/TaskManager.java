@@ -1,9 +1,12 @@
 package task.cli.myllaume.db;
 
-import task.cli.myllaume.ProjectDb;
+import java.util.ArrayList;
+import java.util.List;
+import task.cli.myllaume.ImportProgressListener;
 import task.cli.myllaume.Task;
 import task.cli.myllaume.TaskData;
 import task.cli.myllaume.TaskRepositorySqlite;
+import task.cli.myllaume.UnknownProjectException;
 
 public class TaskManager {
   private TaskRepositorySqlite taskRepo;
@@ -18,20 +21,44 @@ public class TaskManager {
   }
 
   public Task createTaskOnCurrentProject(TaskData data) throws Exception {
-    ProjectDb currentProject = projectsRepo.getCurrentProject();
-    if (currentProject == null) {
-      throw new Exception("No current project set.");
+    try {
+      return taskRepo.createTask(data, getCurrentProjectId());
+    } catch (UnknownProjectException e) {
+      // Projet en cache supprimé depuis, par exemple par un autre processus
+      projectsRepo.invalidateCurrentProject();
+      return taskRepo.createTask(data, getCurrentProjectId());
     }
+  }
 
-    return taskRepo.createTask(data, currentProject.getId());
+  public ArrayList<Task> createTasksOnCurrentProject(List<TaskData> data) throws Exception {
+    try {
+      return taskRepo.createTasks(data, getCurrentProjectId());
+    } catch (UnknownProjectException e) {
+      projectsRepo.invalidateCurrentProject();
+      return taskRepo.createTasks(data, getCurrentProjectId());
+    }
   }
 
   public int importFromCsvOnCurrentProject(String csvPath) throws Exception {
-    ProjectDb currentProject = projectsRepo.getCurrentProject();
-    if (currentProject == null) {
-      throw new Exception("No current project set.");
+    return importFromCsvOnCurrentProject(
+        csvPath, TaskRepositorySqlite.DEFAULT_IMPORT_CHUNK_SIZE, null);
+  }
+
+  public int importFromCsvOnCurrentProject(
+      String csvPath, int chunkSize, ImportProgressListener listener) throws Exception {
+    try {
+      return taskRepo.importFromCsv(csvPath, getCurrentProjectId(), chunkSize, listener);
+    } catch (UnknownProjectException e) {
+      projectsRepo.invalidateCurrentProject();
+      return taskRepo.importFromCsv(csvPath, getCurrentProjectId(), chunkSize, listener);
     }
+  }
 
-    return taskRepo.importFromCsv(csvPath, currentProject.getId());
+  private int getCurrentProjectId() throws Exception {
+    Integer currentProjectId = projectsRepo.getCurrentProjectId();
+    if (currentProjectId == null) {
+      throw new Exception("No current project set.");
+    }
+    return currentProjectId;
   }
 }
@@ -14,6 +14,10 @@ public class TimelogsRepository extends DatabaseRepository {
     super(dbPath);
   }
 
+  public TimelogsRepository(String dbPath, PragmaProfile profile) {
+    super(dbPath, profile);
+  }
+
   public TimelogDb createTimelog(TimelogData data) throws Exception {
     String sql =
         """
@@ -0,0 +1,15 @@
+package task.cli.myllaume.db;
+
+import java.sql.SQLException;
+
+/** Enveloppe une {@link SQLException} levée pendant la lecture d'un {@code Stream} de résultats. */
+public class UncheckedSQLException extends RuntimeException {
+  public UncheckedSQLException(SQLException cause) {
+    super(cause.getMessage(), cause);
+  }
+
+  @Override
+  public synchronized SQLException getCause() {
+    return (SQLException) super.getCause();
+  }
+}
@@ -0,0 +1,90 @@
+package task.cli.myllaume.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/** Lecture des listes d'ids passées en ligne de commande, par exemple {@code 10-500,812}. */
+public class IdRanges {
+  public static final int MAX_IDS = 1_000_000;
+
+  /**
+   * @return Les ids triés, sans doublon
+   * @throws IllegalArgumentException si la liste est mal formée ou dépasse {@link #MAX_IDS} ids
+   */
+  public static int[] parse(String spec) {
+    Validators.throwNullOrEmptyString(spec, "La liste d'ids ne peut pas être vide.");
+
+    // Les intervalles sont gardés tels quels : la mémoire dépend du nombre d'ids, pas de leur
+    // valeur
+    List<int[]> ranges = new ArrayList<>();
+    for (String part : spec.split(",", -1)) {
+      part = part.trim();
+      int dash = part.indexOf('-');
+
+      int from;
+      int to;
+      try {
+        if (dash == -1) {
+          from = Integer.parseInt(part);
+          to = from;
+        } else {
+          from = Integer.parseInt(part.substring(0, dash).trim());
+          to = Integer.parseInt(part.substring(dash + 1).trim());
+        }
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Liste d'ids invalide : " + spec);
+      }
+
+      if (from <= 0 || to < from) {
+        throw new IllegalArgumentException("Liste d'ids invalide : " + spec);
+      }
+      ranges.add(new int[] {from, to});
+    }
+
+    // Fusion des intervalles qui se chevauchent ou se touchent, avant tout dépliage
+    ranges.sort(Comparator.comparingInt((int[] range) -> range[0]));
+    List<int[]> merged = new ArrayList<>();
+    long count = 0;
+    for (int[] range : ranges) {
+      int[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+      if (last != null && (long) range[0] <= (long) last[1] + 1) {
+        if (range[1] > last[1]) {
+          count += (long) range[1] - last[1];
+          last[1] = range[1];
+        }
+      } else {
+        merged.add(range);
+        count += (long) range[1] - range[0] + 1;
+      }
+      if (count > MAX_IDS) {
+        throw new IllegalArgumentException("Trop d'ids, au plus " + MAX_IDS + " à la fois.");
+      }
+    }
+
+    int[] ids = new int[(int) count];
+    int index = 0;
+    for (int[] range : merged) {
+      // Boucle en long : l'id Integer.MAX_VALUE ne doit pas faire déborder le compteur
+      for (long id = range[0]; id <= range[1]; id++) {
+        ids[index++] = (int) id;
+      }
+    }
+    return ids;
+  }
+
+  /**
+   * @return Un tableau JSON, à passer à {@code json_each(?)} pour lier toute la liste en un seul
+   *     paramètre
+   */
+  public static String toJson(int[] ids) {
+    StringBuilder sb = new StringBuilder(ids.length * 8 + 2).append('[');
+    for (int i = 0; i < ids.length; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(ids[i]);
+    }
+    return sb.append(']').toString();
+  }
+}
@@ -1,14 +1,17 @@
 package task.cli.myllaume.utils;
 
 import java.text.Normalizer;
+import java.util.regex.Pattern;
 
 public class StringUtils {
+  private static final Pattern NON_ALNUM = Pattern.compile("[^\\p{Alnum}]");
+
   public static String normalizeString(String input) {
     if (input == null) {
       return null;
     }
     String normalized = Normalizer.normalize(input, Normalizer.Form.NFD);
-    normalized = normalized.replaceAll("[^\\p{Alnum}]", "");
+    normalized = NON_ALNUM.matcher(normalized).replaceAll("");
     normalized = normalized.toLowerCase();
     return normalized;
   }
@@ -4,8 +4,11 @@ import static org.junit.Assert.*;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Map;
 import org.junit.Test;
+import task.cli.myllaume.config.AppConfig;
 import task.cli.myllaume.config.AppConfigRepository;
+import task.cli.myllaume.db.PragmaProfile;
 
 public class AppConfigRepositoryTest {
 
@@ -55,4 +58,125 @@ public class AppConfigRepositoryTest {
     String appVersion = configRepo.getAppVersion();
     assertEquals("2.0", appVersion);
   }
+
+  @Test
+  public void testDefaultPragmaProfile() throws Exception {
+
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    AppConfigRepository configRepo = new AppConfigRepository(tempDir.toString());
+    assertEquals(PragmaProfile.DURABLE, configRepo.getPragmaProfile());
+
+    configRepo.init();
+    assertEquals(PragmaProfile.DURABLE, configRepo.getPragmaProfile());
+  }
+
+  @Test
+  public void testSetPragmaProfile() throws Exception {
+
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    AppConfigRepository configRepo = new AppConfigRepository(tempDir.toString());
+    configRepo.init();
+    configRepo.setPragmaProfile(PragmaProfile.FAST);
+    configRepo.setAppVersion("2.0");
+
+    assertEquals(PragmaProfile.FAST, configRepo.getPragmaProfile());
+    assertEquals("2.0", configRepo.getAppVersion());
+  }
+
+  @Test
+  public void testReadSettings() throws Exception {
+
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    Files.writeString(
+        tempDir.resolve("config.properties"),
+        "# Réglages\n"
+            + "version = 1.0\n"
+            + "\n"
+            + "pragma_profile = fast\n"
+            + "pool_size=2\n"
+            + "cache_size_kib = 8192\n"
+            + "slow_query_ms = 250\n"
+            + "query_stats = on\n"
+            + "default.list.page-size = 25\n");
+
+    AppConfig config = new AppConfigRepository(tempDir.toString()).getConfig();
+    assertEquals("1.0", config.getVersion());
+    assertEquals(PragmaProfile.FAST, config.getPragmaProfile());
+    assertEquals(2, config.getPoolSize());
+    assertEquals(8192, config.getCacheSizeKib());
+    assertEquals(250, config.getSlowQueryMillis());
+    assertTrue(config.isQueryStatsEnabled());
+    assertEquals(Map.of("list.page-size", "25"), config.getOptionDefaults());
+  }
+
+  @Test
+  public void testInvalidSetting() throws Exception {
+
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    Files.writeString(tempDir.resolve("config.properties"), "version = 1.0\npool_size = 0\n");
+
+    try {
+      new AppConfigRepository(tempDir.toString()).getConfig();
+      fail("Should have thrown IllegalArgumentException for pool_size = 0");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("pool_size"));
+    }
+
+    Files.writeString(tempDir.resolve("config.properties"), "version = 1.0\nquery_stats = yes\n");
+
+    try {
+      new AppConfigRepository(tempDir.toString()).getConfig();
+      fail("Should have thrown IllegalArgumentException for query_stats = yes");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("on ou off"));
+    }
+  }
+
+  @Test
+  public void testLegacyXmlIsMigrated() throws Exception {
+
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    Path legacy = tempDir.resolve("config.xml");
+    Files.writeString(
+        legacy,
+        "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>"
+            + "<config><version>1.3</version><pragmaProfile>fast</pragmaProfile></config>");
+
+    AppConfigRepository configRepo = new AppConfigRepository(tempDir.toString());
+    assertTrue(configRepo.fileExists());
+    assertEquals("1.3", configRepo.getAppVersion());
+    assertEquals(PragmaProfile.FAST, configRepo.getPragmaProfile());
+
+    assertFalse(Files.exists(legacy));
+    assertTrue(Files.exists(tempDir.resolve("config.properties")));
+    assertEquals("1.3", new AppConfigRepository(tempDir.toString()).getAppVersion());
+  }
+
+  @Test
+  public void testSettersKeepOptionDefaults() throws Exception {
+
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    Files.writeString(
+        tempDir.resolve("config.properties"),
+        "version = 1.0\nquery_stats = on\ndefault.list.page-size = 5\n");
+
+    new AppConfigRepository(tempDir.toString()).setAppVersion("2.0");
+
+    AppConfig config = new AppConfigRepository(tempDir.toString()).getConfig();
+    assertEquals("2.0", config.getVersion());
+    assertEquals("5", config.getOptionDefaults().get("list.page-size"));
+    assertTrue(config.isQueryStatsEnabled());
+  }
 }
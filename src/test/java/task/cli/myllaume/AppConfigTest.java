@@ -12,4 +12,10 @@ public class AppConfigTest {
     AppConfig config = new AppConfig("1.0");
     assertEquals("1.0", config.getVersion());
   }
+
+  @Test
+  public void testQueryStatsDisabledByDefault() {
+    AppConfig config = new AppConfig("1.0");
+    assertFalse(config.isQueryStatsEnabled());
+  }
 }
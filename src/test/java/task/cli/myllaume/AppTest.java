@@ -4,7 +4,16 @@ import static org.junit.Assert.*;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
 import org.junit.Test;
+import picocli.CommandLine;
+import task.cli.myllaume.config.AppConfig;
+import task.cli.myllaume.config.AppConfigRepository;
+import task.cli.myllaume.db.PragmaProfile;
 
 public class AppTest {
 
@@ -29,4 +38,151 @@ public class AppTest {
     assertEquals("", out.toString());
     assertEquals("", err.toString());
   }
+
+  @Test
+  public void testIsForwardable() {
+    assertTrue(App.isForwardable(new String[] {"list", "--count"}));
+    assertTrue(App.isForwardable(new String[] {"add", "Task"}));
+    assertTrue(App.isForwardable(new String[] {}));
+    assertFalse(App.isForwardable(new String[] {"serve"}));
+    assertFalse(App.isForwardable(new String[] {"import", "tasks.csv"}));
+    assertFalse(App.isForwardable(new String[] {"add", "--stdin"}));
+  }
+
+  @Test
+  public void testTrainingKeepsStandardStreams() throws Exception {
+    PrintStream oldOut = System.out;
+    PrintStream oldErr = System.err;
+
+    AppTraining.run();
+
+    assertSame(oldOut, System.out);
+    assertSame(oldErr, System.err);
+  }
+
+  @Test
+  public void testTrainingFailsOnCommandError() throws Exception {
+    PrintStream oldOut = System.out;
+    PrintStream oldErr = System.err;
+
+    try {
+      AppTraining.run(List.of(new String[] {"list"}, new String[] {"list", "--unknown"}));
+      fail("Should have thrown IllegalStateException for a failing training command");
+    } catch (IllegalStateException e) {
+      assertTrue(e.getMessage().startsWith("La commande d'entraînement 'list --unknown'"));
+      assertTrue(e.getMessage().contains("(code 2)"));
+    }
+
+    assertSame(oldOut, System.out);
+    assertSame(oldErr, System.err);
+  }
+
+  private CommandFactory createFactory(Path dir) {
+    return new CommandFactory(
+        dir.toString(), new AppConfigRepository(dir.toString()), PragmaProfile.DURABLE);
+  }
+
+  @Test
+  public void testOptionDefaultsFromConfig() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    CommandFactory factory = createFactory(tempDir);
+    AppConfig config =
+        new AppConfig("1.0", PragmaProfile.DURABLE, 4, 0, Map.of("list.page-size", "3"));
+
+    CommandLine cmd = App.createCommandLine(factory, config);
+    cmd.parseArgs("list");
+    CommandList list = cmd.getSubcommands().get("list").getCommand();
+    assertEquals(3, list.pageSize);
+
+    cmd = App.createCommandLine(factory, config);
+    cmd.parseArgs("list", "--page-size", "7");
+    list = cmd.getSubcommands().get("list").getCommand();
+    assertEquals(7, list.pageSize);
+  }
+
+  @Test
+  public void testUnknownOptionDefaultIsRejected() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    CommandFactory factory = createFactory(tempDir);
+    AppConfig config =
+        new AppConfig("1.0", PragmaProfile.DURABLE, 4, 0, Map.of("list.pagesize", "3"));
+
+    try {
+      App.createCommandLine(factory, config);
+      fail("Should have thrown IllegalArgumentException for an unknown option default");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Option inconnue dans la configuration : default.list.pagesize", e.getMessage());
+    }
+
+    config = new AppConfig("1.0", PragmaProfile.DURABLE, 4, 0, Map.of("tasks.train", "false"));
+    assertNotNull(App.createCommandLine(factory, config));
+  }
+
+  @Test
+  public void testHelpAndVersionDoNotOpenDatabase() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    PrintStream oldOut = System.out;
+
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    CommandFactory factory = createFactory(tempDir);
+    AppConfig config = new AppConfig("1.0");
+
+    try {
+      System.setOut(new PrintStream(out));
+      assertEquals(0, App.createCommandLine(factory, config).execute("--help"));
+      assertEquals(0, App.createCommandLine(factory, config).execute("--version"));
+    } finally {
+      System.setOut(oldOut);
+    }
+
+    assertTrue(out.toString().contains("clear"));
+    assertFalse(Files.exists(tempDir.resolve("tasks.db")));
+    assertFalse(Files.exists(tempDir.resolve("config.properties")));
+
+    try {
+      System.setOut(new PrintStream(new ByteArrayOutputStream()));
+      assertEquals(0, App.createCommandLine(factory, config).execute("list", "--count"));
+    } finally {
+      System.setOut(oldOut);
+    }
+
+    assertTrue(Files.exists(tempDir.resolve("tasks.db")));
+    assertTrue(Files.exists(tempDir.resolve("config.properties")));
+  }
+
+  @Test
+  public void testFirstLaunchFailureExitCode() throws Exception {
+    ByteArrayOutputStream err = new ByteArrayOutputStream();
+    PrintStream oldOut = System.out;
+
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+    // Configuration présente mais base vide : état incohérent, l'installation échoue
+    Files.writeString(tempDir.resolve("config.properties"), "version = 1.0\n");
+
+    CommandFactory factory = createFactory(tempDir);
+    AppConfig config = new AppConfig("1.0");
+
+    try {
+      System.setOut(new PrintStream(new ByteArrayOutputStream()));
+      CommandLine cmd = App.createCommandLine(factory, config);
+      cmd.setErr(new PrintWriter(err, true));
+      assertEquals(1, cmd.execute("list", "--count"));
+      assertEquals(1, App.createCommandLine(factory, config).execute("add", "Task"));
+
+      // Les commandes qui n'ouvrent pas la base ne sont pas concernées
+      assertEquals(0, App.createCommandLine(factory, config).execute("--version"));
+      assertEquals(0, App.createCommandLine(factory, config).execute("stats", "--perf"));
+    } finally {
+      System.setOut(oldOut);
+    }
+
+    assertTrue(err.toString().startsWith("Critical error during first launch"));
+  }
 }
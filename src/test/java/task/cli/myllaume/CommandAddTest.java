@@ -2,12 +2,16 @@ package task.cli.myllaume;
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.List;
 import org.junit.Test;
 import picocli.CommandLine;
 import task.cli.myllaume.db.ProjectsRepository;
@@ -78,7 +82,7 @@ public class CommandAddTest {
       System.setOut(new PrintStream(out));
 
       CommandAdd cmd = new CommandAdd(manager);
-      cmd.description = "Test";
+      cmd.descriptions = List.of("Test");
       cmd.completed = true;
       cmd.priority = 3;
       cmd.run();
@@ -98,4 +102,121 @@ public class CommandAddTest {
     assertTrue(task.getCompleted());
     assertEquals(TaskPriority.HIGH, task.getPriority());
   }
+
+  @Test
+  public void testRunWithSeveralDescriptions() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    PrintStream oldOut = System.out;
+
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    TaskManager manager = getManager(dbPath);
+
+    try {
+      System.setOut(new PrintStream(out));
+
+      CommandAdd cmd = new CommandAdd(manager);
+      new CommandLine(cmd).parseArgs("First", "Second", "Third", "--priority", "2");
+      cmd.run();
+    } finally {
+      System.setOut(oldOut);
+    }
+
+    assertEquals("3 tâche(s) ajoutée(s).\n", out.toString());
+
+    ArrayList<Task> tasks = new TaskRepositorySqlite(dbPath).getTasks(10);
+    assertEquals(3, tasks.size());
+    assertEquals("First", tasks.get(0).getDescription());
+    assertEquals(TaskPriority.MEDIUM, tasks.get(0).getPriority());
+  }
+
+  @Test
+  public void testRunFromStdin() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    PrintStream oldOut = System.out;
+    InputStream oldIn = System.in;
+
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    TaskManager manager = getManager(dbPath);
+
+    StringBuilder input = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      input.append("Generated ").append(i).append("\n\n");
+    }
+
+    try {
+      System.setOut(new PrintStream(out));
+      System.setIn(new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)));
+
+      CommandAdd cmd = new CommandAdd(manager);
+      new CommandLine(cmd).parseArgs("--stdin");
+      cmd.run();
+    } finally {
+      System.setOut(oldOut);
+      System.setIn(oldIn);
+    }
+
+    assertEquals("1000 tâche(s) ajoutée(s).\n", out.toString());
+    assertEquals(1000, new TaskRepositorySqlite(dbPath).countTasks());
+  }
+
+  @Test
+  public void testRunWithoutDescription() throws Exception {
+    ByteArrayOutputStream err = new ByteArrayOutputStream();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    PrintStream oldErr = System.err;
+    PrintStream oldOut = System.out;
+
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    TaskManager manager = getManager(tempDir.toString());
+    int exitCode;
+
+    try {
+      System.setErr(new PrintStream(err));
+      System.setOut(new PrintStream(out));
+
+      exitCode = new CommandLine(new CommandAdd(manager)).execute();
+    } finally {
+      System.setErr(oldErr);
+      System.setOut(oldOut);
+    }
+
+    assertEquals(2, exitCode);
+    assertEquals("", out.toString());
+    assertTrue(err.toString().contains("Nom de tâche manquant"));
+    assertEquals(0, new TaskRepositorySqlite(tempDir.toString()).countTasks());
+  }
+
+  @Test
+  public void testRunWithEmptyStdin() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    PrintStream oldOut = System.out;
+    InputStream oldIn = System.in;
+
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    TaskManager manager = getManager(tempDir.toString());
+    int exitCode;
+
+    try {
+      System.setOut(new PrintStream(out));
+      System.setIn(new ByteArrayInputStream(new byte[0]));
+
+      exitCode = new CommandLine(new CommandAdd(manager)).execute("--stdin");
+    } finally {
+      System.setOut(oldOut);
+      System.setIn(oldIn);
+    }
+
+    assertEquals(0, exitCode);
+    assertEquals("Aucune tâche à ajouter.\n", out.toString());
+  }
 }
@@ -8,6 +8,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import org.junit.Test;
+import picocli.CommandLine;
 import task.cli.myllaume.db.ProjectsRepository;
 import task.cli.myllaume.db.TaskManager;
 
@@ -49,7 +50,7 @@ public class CommandDoneTest {
       System.setOut(new PrintStream(out));
 
       CommandDone cmd = new CommandDone(repo);
-      cmd.id = task.getId();
+      cmd.id = String.valueOf(task.getId());
       cmd.completeLastAdded = false;
       cmd.run();
     } finally {
@@ -130,7 +131,7 @@ public class CommandDoneTest {
       System.setOut(new PrintStream(out));
 
       CommandDone cmd = new CommandDone(repo);
-      cmd.id = task.getId();
+      cmd.id = String.valueOf(task.getId());
       cmd.completeLastAdded = false;
       cmd.run();
     } finally {
@@ -164,7 +165,7 @@ public class CommandDoneTest {
       System.setOut(new PrintStream(out));
 
       CommandDone cmd = new CommandDone(repo);
-      cmd.id = 999; // ID inexistant
+      cmd.id = "999"; // ID inexistant
       cmd.completeLastAdded = false;
       cmd.run();
     } finally {
@@ -205,4 +206,105 @@ public class CommandDoneTest {
     assertEquals("", err.toString());
     assertEquals("Aucune tâche trouvée à marquer comme terminée.\n", out.toString());
   }
+
+  @Test
+  public void testRunWithIdRanges() throws Exception {
+    ByteArrayOutputStream err = new ByteArrayOutputStream();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    PrintStream oldErr = System.err;
+    PrintStream oldOut = System.out;
+
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(dbPath);
+    repo.initTables();
+
+    Instant now = Instant.now();
+    for (int i = 1; i <= 5; i++) {
+      createTask(dbPath, TaskData.of("Task " + i, i == 2, TaskPriority.LOW, now, null, null));
+    }
+
+    try {
+      System.setErr(new PrintStream(err));
+      System.setOut(new PrintStream(out));
+
+      CommandDone cmd = new CommandDone(repo);
+      cmd.id = "1-3,5";
+      cmd.run();
+    } finally {
+      System.setErr(oldErr);
+      System.setOut(oldOut);
+    }
+
+    assertEquals("", err.toString());
+    assertEquals(
+        "3 tâche(s) marquée(s) comme terminée(s).\n"
+            + "1 id(s) ignoré(s) : inconnus ou déjà terminés.\n",
+        out.toString());
+    assertEquals(1, repo.countTasksTodo());
+    assertFalse(repo.getTask(4).getCompleted());
+  }
+
+  @Test
+  public void testRunWithInvalidIds() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    PrintStream oldOut = System.out;
+
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(tempDir.toString());
+    repo.initTables();
+
+    try {
+      System.setOut(new PrintStream(out));
+
+      CommandDone cmd = new CommandDone(repo);
+      cmd.id = "5-2";
+      cmd.run();
+    } finally {
+      System.setOut(oldOut);
+    }
+
+    assertEquals(
+        "Erreur lors de la mise à jour de la tâche : Liste d'ids invalide : 5-2\n", out.toString());
+  }
+
+  @Test
+  public void testRunWithoutTarget() throws Exception {
+    ByteArrayOutputStream err = new ByteArrayOutputStream();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    PrintStream oldErr = System.err;
+    PrintStream oldOut = System.out;
+
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    TaskData data = TaskData.of("Test task", false, TaskPriority.LOW, Instant.now(), null, null);
+    Task task = createTask(tempDir.toString(), data);
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(tempDir.toString());
+    int exitCode;
+    int exitCodeWithTwoTargets;
+
+    try {
+      System.setErr(new PrintStream(err));
+      System.setOut(new PrintStream(out));
+
+      exitCode = new CommandLine(new CommandDone(repo)).execute();
+      exitCodeWithTwoTargets =
+          new CommandLine(new CommandDone(repo))
+              .execute(String.valueOf(task.getId()), "--match", "Test");
+    } finally {
+      System.setErr(oldErr);
+      System.setOut(oldOut);
+    }
+
+    assertEquals(2, exitCode);
+    assertEquals(2, exitCodeWithTwoTargets);
+    assertEquals("", out.toString());
+    assertTrue(err.toString().contains("Indiquer un seul choix parmi un id, --last et --match."));
+    assertFalse(repo.getTask(task.getId()).getCompleted());
+  }
 }
@@ -8,6 +8,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import org.junit.Test;
+import picocli.CommandLine;
 import task.cli.myllaume.db.ProjectsRepository;
 import task.cli.myllaume.db.TaskManager;
 
@@ -36,9 +37,7 @@ public class CommandImportTest {
       System.setErr(new PrintStream(err));
       System.setOut(new PrintStream(out));
 
-      CommandImport cmd = new CommandImport(manager);
-      cmd.filePath = "src/test/resources/many.csv";
-      cmd.run();
+      new CommandLine(new CommandImport(manager)).execute("src/test/resources/many.csv");
     } finally {
       System.setErr(oldErr);
       System.setOut(oldOut);
@@ -47,4 +46,33 @@ public class CommandImportTest {
     assertEquals("", err.toString());
     assertEquals("52 tâches ont été importées.\n", out.toString());
   }
+
+  @Test
+  public void testRunWithInvalidChunkSize() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    PrintStream oldOut = System.out;
+
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    TaskRepositorySqlite tasksRepo = new TaskRepositorySqlite(dbPath);
+    tasksRepo.initTables();
+    ProjectsRepository projectsRepository = new ProjectsRepository(dbPath);
+    projectsRepository.insertDefaultProjectIfNoneExists(defaultProject);
+    TaskManager manager = new TaskManager(tasksRepo, projectsRepository);
+
+    try {
+      System.setOut(new PrintStream(out));
+      new CommandLine(new CommandImport(manager))
+          .execute("src/test/resources/many.csv", "--chunk-size", "0");
+    } finally {
+      System.setOut(oldOut);
+    }
+
+    assertEquals(
+        "Les tâches n'ont pas pu être importées: Chunk size must be a positive integer\n",
+        out.toString());
+    assertEquals(0, tasksRepo.getTaskCounters().getTotal());
+  }
 }
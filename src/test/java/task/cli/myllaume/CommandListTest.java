@@ -95,4 +95,52 @@ public class CommandListTest {
     assertEquals("", err.toString());
     assertEquals("Liste des tâches\n1. [ ] Test\n", out.toString());
   }
+
+  @Test
+  public void testRunPaginated() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    PrintStream oldOut = System.out;
+
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(dbPath);
+    repo.initTables();
+
+    Instant now = Instant.now();
+    createTask(dbPath, TaskData.of("One", false, TaskPriority.LOW, now, null, null));
+    createTask(dbPath, TaskData.of("Two", false, TaskPriority.LOW, now, null, null));
+
+    try {
+      System.setOut(new PrintStream(out));
+
+      CommandList cmd = new CommandList(repo);
+      cmd.pageSize = 1;
+      cmd.run();
+    } finally {
+      System.setOut(oldOut);
+    }
+
+    String[] lines = out.toString().split("\n");
+    assertEquals(3, lines.length);
+    assertEquals("1. [ ] One", lines[1]);
+    assertTrue(lines[2].startsWith("Page suivante : tasks list --after "));
+
+    String token = lines[2].substring("Page suivante : tasks list --after ".length());
+    out.reset();
+
+    try {
+      System.setOut(new PrintStream(out));
+
+      CommandList cmd = new CommandList(repo);
+      cmd.pageSize = 1;
+      cmd.after = token;
+      cmd.run();
+    } finally {
+      System.setOut(oldOut);
+    }
+
+    assertEquals("Liste des tâches\n2. [ ] Two\n", out.toString());
+  }
 }
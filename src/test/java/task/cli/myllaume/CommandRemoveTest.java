@@ -105,4 +105,38 @@ public class CommandRemoveTest {
     ArrayList<Task> tasks = repo.getTasks(10);
     assertEquals(2, tasks.size());
   }
+
+  @Test
+  public void testRunWithIdList() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    PrintStream oldOut = System.out;
+
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(dbPath);
+    repo.initTables();
+
+    Instant now = Instant.now();
+    for (int i = 1; i <= 4; i++) {
+      createTask(dbPath, TaskData.of("Task " + i, false, TaskPriority.LOW, now, null, null));
+    }
+
+    try {
+      System.setOut(new PrintStream(out));
+
+      CommandRemove cmd = new CommandRemove(repo);
+      cmd.id = "1,3-4";
+      cmd.run();
+    } finally {
+      System.setOut(oldOut);
+    }
+
+    assertEquals("3 tâche(s) supprimée(s).\n", out.toString());
+
+    ArrayList<Task> tasks = repo.getTasks(10);
+    assertEquals(1, tasks.size());
+    assertEquals("Task 2", tasks.get(0).getDescription());
+  }
 }
@@ -238,4 +238,43 @@ public class CommandSearchTest {
         "Le nombre maximum de résultats affiché ne peut pas être inférieur au nombre maximum de résultats à analyser.\n",
         out.toString());
   }
+
+  @Test
+  public void testRunRanked() throws Exception {
+    ByteArrayOutputStream err = new ByteArrayOutputStream();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    PrintStream oldErr = System.err;
+    PrintStream oldOut = System.out;
+
+    File tempDir = Files.createTempDirectory("tests").toFile();
+    tempDir.deleteOnExit();
+
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(tempDir.getAbsolutePath());
+    repo.initTables();
+    TaskManager manager = getManager(tempDir.getAbsolutePath());
+
+    Instant now = Instant.now();
+    manager.createTaskOnCurrentProject(
+        TaskData.of("Archive old tests", false, TaskPriority.LOW, now, null, null));
+    manager.createTaskOnCurrentProject(
+        TaskData.of("Tests", false, TaskPriority.LOW, now, null, null));
+
+    try {
+      System.setErr(new PrintStream(err));
+      System.setOut(new PrintStream(out));
+
+      CommandSearch cmd = new CommandSearch(repo);
+      new CommandLine(cmd).parseArgs("--ranked", "tests");
+      cmd.run();
+    } finally {
+      System.setErr(oldErr);
+      System.setOut(oldOut);
+    }
+
+    assertEquals("", err.toString());
+    String[] lines = out.toString().split("\n");
+    assertEquals(3, lines.length);
+    assertEquals("2. [ ] Tests", lines[0]);
+    assertEquals("1. [ ] Archive old tests", lines[1]);
+  }
 }
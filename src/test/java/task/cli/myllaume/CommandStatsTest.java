@@ -0,0 +1,93 @@
+package task.cli.myllaume;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import org.junit.After;
+import org.junit.Test;
+import picocli.CommandLine;
+import task.cli.myllaume.db.ProjectsRepository;
+import task.cli.myllaume.db.QueryStats;
+import task.cli.myllaume.db.TaskManager;
+
+public class CommandStatsTest {
+
+  private String run(CommandStats cmd, String... args) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    PrintStream oldOut = System.out;
+
+    try {
+      System.setOut(new PrintStream(out));
+      new CommandLine(cmd).execute(args);
+    } finally {
+      System.setOut(oldOut);
+    }
+    return out.toString();
+  }
+
+  private TaskRepositorySqlite createRepository(Path tempDir) throws Exception {
+    String dbPath = tempDir.toString();
+    TaskRepositorySqlite tasksRepo = new TaskRepositorySqlite(dbPath);
+    ProjectsRepository projectsRepo = new ProjectsRepository(dbPath);
+    projectsRepo.initTables();
+    projectsRepo.insertDefaultProjectIfNoneExists(ProjectData.of("Default", Instant.now()));
+    TaskManager manager = new TaskManager(tasksRepo, projectsRepo);
+    manager.createTaskOnCurrentProject(
+        TaskData.of("Première", true, TaskPriority.LOW, Instant.now(), null, null));
+    manager.createTaskOnCurrentProject(
+        TaskData.of("Seconde", false, TaskPriority.LOW, Instant.now(), null, null));
+    return tasksRepo;
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    QueryStats.configure(false, null, QueryStats.DEFAULT_SLOW_QUERY_MILLIS);
+  }
+
+  @Test
+  public void testProgress() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String output = run(new CommandStats(createRepository(tempDir)));
+    assertEquals("Projet 1 : 1 terminée(s) sur 2\n", output);
+  }
+
+  @Test
+  public void testPerf() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    QueryStats.configure(true, tempDir, 0);
+    QueryStats.reset();
+    TaskRepositorySqlite repo = createRepository(tempDir);
+
+    String output = run(new CommandStats(repo), "--perf");
+    assertTrue(output.contains("p50 ms"));
+    assertTrue(output.contains("p99 ms"));
+    assertTrue(output.contains("INSERT INTO tasks"));
+    assertTrue(output.contains(QueryStats.ACQUIRE_KEY));
+
+    assertEquals(
+        "Les mesures des requêtes ont été effacées.\n", run(new CommandStats(repo), "--reset"));
+    assertEquals("Aucune mesure enregistrée.\n", run(new CommandStats(repo), "--perf"));
+  }
+
+  @Test
+  public void testPerfWhenDisabled() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    QueryStats.configure(false, tempDir, 0);
+    TaskRepositorySqlite repo = createRepository(tempDir);
+
+    assertEquals(
+        "Mesures désactivées : ajouter query_stats = on à config.properties pour les activer.\n"
+            + "Aucune mesure enregistrée.\n",
+        run(new CommandStats(repo), "--perf"));
+  }
+}
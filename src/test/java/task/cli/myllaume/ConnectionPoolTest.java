@@ -0,0 +1,142 @@
+package task.cli.myllaume;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.junit.Test;
+import task.cli.myllaume.db.ConnectionPool;
+import task.cli.myllaume.db.PragmaProfile;
+
+public class ConnectionPoolTest {
+
+  private String getUrl() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+    return "jdbc:sqlite:" + tempDir.toString() + "/tasks.db";
+  }
+
+  @Test
+  public void testConnectionIsReused() throws Exception {
+    ConnectionPool pool = new ConnectionPool(getUrl(), 2, 1000);
+
+    Connection first = pool.getConnection();
+    Connection physical = first.unwrap(Connection.class);
+    first.close();
+
+    assertEquals(1, pool.getIdleCount());
+
+    try (Connection second = pool.getConnection()) {
+      assertSame(physical, second.unwrap(Connection.class));
+      assertEquals(0, pool.getIdleCount());
+    }
+
+    pool.close();
+  }
+
+  @Test
+  public void testClosedHandleCannotBeUsed() throws Exception {
+    ConnectionPool pool = new ConnectionPool(getUrl(), 1, 1000);
+
+    Connection conn = pool.getConnection();
+    conn.close();
+    conn.close();
+
+    assertTrue(conn.isClosed());
+    try {
+      conn.createStatement();
+      fail("Should have thrown SQLException on a released connection");
+    } catch (SQLException e) {
+      assertEquals("Connection is closed", e.getMessage());
+    }
+
+    pool.close();
+  }
+
+  @Test
+  public void testPoolIsBounded() throws Exception {
+    ConnectionPool pool = new ConnectionPool(getUrl(), 1, 50);
+
+    try (Connection conn = pool.getConnection()) {
+      try {
+        pool.getConnection();
+        fail("Should have thrown SQLException when the pool is exhausted");
+      } catch (SQLException e) {
+        assertTrue(e.getMessage().contains("Timeout"));
+      }
+    }
+
+    try (Connection conn = pool.getConnection()) {
+      assertFalse(conn.isClosed());
+    }
+
+    pool.close();
+  }
+
+  @Test
+  public void testReleaseRollsBackOpenTransaction() throws Exception {
+    ConnectionPool pool = new ConnectionPool(getUrl(), 1, 1000);
+
+    try (Connection conn = pool.getConnection();
+        Statement stmt = conn.createStatement()) {
+      stmt.execute("CREATE TABLE items (id INTEGER PRIMARY KEY)");
+    }
+
+    Connection conn = pool.getConnection();
+    conn.setAutoCommit(false);
+    try (Statement stmt = conn.createStatement()) {
+      stmt.execute("INSERT INTO items (id) VALUES (1)");
+    }
+    conn.close();
+
+    try (Connection reused = pool.getConnection();
+        Statement stmt = reused.createStatement()) {
+      assertTrue(reused.getAutoCommit());
+      assertFalse(stmt.executeQuery("SELECT id FROM items").next());
+    }
+
+    pool.close();
+  }
+
+  @Test
+  public void testRepositoriesShareThePool() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    TaskRepositorySqlite tasks = new TaskRepositorySqlite(tempDir.toString());
+    TaskRepositorySqlite other = new TaskRepositorySqlite(tempDir.toString());
+
+    assertSame(tasks.getPool(), other.getPool());
+  }
+
+  @Test
+  public void testClosedPoolRejectsConnections() throws Exception {
+    ConnectionPool pool = new ConnectionPool(getUrl(), 1, 1000);
+    pool.close();
+
+    try {
+      pool.getConnection();
+      fail("Should have thrown SQLException on a closed pool");
+    } catch (SQLException e) {
+      assertTrue(e.getMessage().contains("closed"));
+    }
+  }
+
+  @Test
+  public void testCacheSizeIsApplied() throws Exception {
+    ConnectionPool pool = new ConnectionPool(getUrl(), PragmaProfile.DURABLE, 1, 1000, 4096);
+
+    try (Connection conn = pool.getConnection();
+        Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery("PRAGMA cache_size")) {
+      assertTrue(rs.next());
+      assertEquals(-4096, rs.getInt(1));
+    }
+
+    pool.close();
+  }
+}
@@ -0,0 +1,107 @@
+package task.cli.myllaume;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+import task.cli.myllaume.csv.CsvTokenizer;
+
+public class CsvTokenizerTest {
+
+  private CsvTokenizer tokenize(String content) {
+    ByteBuffer buffer = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+    CsvTokenizer tokenizer = new CsvTokenizer();
+    tokenizer.reset(buffer, 0, buffer.limit(), 1);
+    return tokenizer;
+  }
+
+  @Test
+  public void testSimpleRecords() throws Exception {
+    CsvTokenizer tokenizer = tokenize("Faire les courses,false\r\nPréparer le repas,true");
+
+    assertTrue(tokenizer.next());
+    assertEquals(1, tokenizer.getLineNumber());
+    assertEquals(2, tokenizer.getFieldCount());
+    assertEquals("Faire les courses", tokenizer.getField(0));
+    assertTrue(tokenizer.fieldEquals(1, "false".getBytes(StandardCharsets.US_ASCII)));
+
+    assertTrue(tokenizer.next());
+    assertEquals(2, tokenizer.getLineNumber());
+    assertEquals("Préparer le repas", tokenizer.getField(0));
+    assertEquals("true", tokenizer.getField(1));
+
+    assertFalse(tokenizer.next());
+  }
+
+  @Test
+  public void testQuotedFields() throws Exception {
+    CsvTokenizer tokenizer =
+        tokenize(
+            "\"Acheter du pain, du lait\",true\n\"Lire \"\"Le Petit Prince\"\"\",false\n\"\",x\n");
+
+    assertTrue(tokenizer.next());
+    assertEquals("Acheter du pain, du lait", tokenizer.getField(0));
+
+    assertTrue(tokenizer.next());
+    assertEquals("Lire \"Le Petit Prince\"", tokenizer.getField(0));
+    assertEquals("false", tokenizer.getField(1));
+
+    assertTrue(tokenizer.next());
+    assertEquals("", tokenizer.getField(0));
+    assertEquals("x", tokenizer.getField(1));
+
+    assertFalse(tokenizer.next());
+  }
+
+  @Test
+  public void testEmbeddedNewline() throws Exception {
+    CsvTokenizer tokenizer = tokenize("\"Première ligne\nseconde ligne\",true\nSuivante,false\n");
+
+    assertTrue(tokenizer.next());
+    assertEquals(1, tokenizer.getLineNumber());
+    assertEquals("Première ligne\nseconde ligne", tokenizer.getField(0));
+
+    assertTrue(tokenizer.next());
+    assertEquals(3, tokenizer.getLineNumber());
+    assertEquals("Suivante", tokenizer.getField(0));
+  }
+
+  @Test
+  public void testMalformedRecordSkipsToNextLine() throws Exception {
+    CsvTokenizer tokenizer = tokenize("\"Fermé\"trop tôt,true\nSuivante,false\n");
+
+    try {
+      tokenizer.next();
+      fail("Should have thrown for text after a closing quote");
+    } catch (Exception e) {
+      assertEquals("Ligne mal formée ou erreur de conversion.", e.getMessage());
+      assertEquals(1, tokenizer.getLineNumber());
+    }
+
+    assertTrue(tokenizer.next());
+    assertEquals(2, tokenizer.getLineNumber());
+    assertEquals("Suivante", tokenizer.getField(0));
+  }
+
+  @Test
+  public void testUnterminatedQuote() throws Exception {
+    CsvTokenizer tokenizer = tokenize("\"Jamais fermé,true\n");
+
+    try {
+      tokenizer.next();
+      fail("Should have thrown for an unterminated quote");
+    } catch (Exception e) {
+      assertEquals("Ligne mal formée ou erreur de conversion.", e.getMessage());
+    }
+    assertFalse(tokenizer.next());
+  }
+
+  @Test
+  public void testEscape() {
+    assertEquals("Simple", CsvTokenizer.escape("Simple"));
+    assertEquals("\"Avec, virgule\"", CsvTokenizer.escape("Avec, virgule"));
+    assertEquals("\"Dit \"\"bonjour\"\"\"", CsvTokenizer.escape("Dit \"bonjour\""));
+    assertEquals("\"Deux\nlignes\"", CsvTokenizer.escape("Deux\nlignes"));
+  }
+}
@@ -0,0 +1,189 @@
+package task.cli.myllaume;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Test;
+import picocli.CommandLine;
+import task.cli.myllaume.config.AppConfigRepository;
+import task.cli.myllaume.daemon.DaemonClient;
+import task.cli.myllaume.daemon.DaemonServer;
+import task.cli.myllaume.db.PragmaProfile;
+import task.cli.myllaume.db.ProjectsRepository;
+
+public class DaemonServerTest {
+
+  private static Thread startServing(DaemonServer server) throws Exception {
+    server.bind();
+    Thread thread =
+        new Thread(
+            () -> {
+              try {
+                server.serve();
+              } catch (Exception e) {
+                throw new RuntimeException(e);
+              }
+            });
+    thread.setDaemon(true);
+    thread.start();
+    return thread;
+  }
+
+  @Test
+  public void testForwardReturnsOutputAndExitCode() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+    Path socketPath = tempDir.resolve(DaemonServer.SOCKET_NAME);
+
+    DaemonServer server =
+        new DaemonServer(
+            socketPath,
+            args -> {
+              System.out.println("args: " + String.join(" ", args));
+              System.err.println("warning");
+              return args.length;
+            });
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ByteArrayOutputStream err = new ByteArrayOutputStream();
+    try (server) {
+      Thread thread = startServing(server);
+
+      Integer exitCode =
+          DaemonClient.tryForward(
+              socketPath,
+              new String[] {"add", "Tâche"},
+              new PrintStream(out),
+              new PrintStream(err));
+      assertEquals(Integer.valueOf(2), exitCode);
+
+      // Le serveur reste disponible pour les requêtes suivantes
+      exitCode =
+          DaemonClient.tryForward(
+              socketPath, new String[] {}, new PrintStream(out), new PrintStream(err));
+      assertEquals(Integer.valueOf(0), exitCode);
+
+      server.close();
+      thread.join(5_000);
+      assertFalse(thread.isAlive());
+    }
+
+    assertEquals("args: add Tâche\nargs: \n", out.toString(StandardCharsets.UTF_8));
+    assertEquals("warning\nwarning\n", err.toString(StandardCharsets.UTF_8));
+    assertFalse(Files.exists(socketPath));
+  }
+
+  @Test
+  public void testForwardWithoutServer() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+    Path socketPath = tempDir.resolve(DaemonServer.SOCKET_NAME);
+
+    assertNull(DaemonClient.tryForward(socketPath, new String[] {"list"}, System.out, System.err));
+
+    // Fichier laissé par un serveur arrêté sans nettoyage
+    Files.createFile(socketPath);
+    assertFalse(DaemonClient.isListening(socketPath));
+    assertNull(DaemonClient.tryForward(socketPath, new String[] {"list"}, System.out, System.err));
+
+    try (DaemonServer server = new DaemonServer(socketPath, args -> 0)) {
+      server.bind();
+      assertTrue(DaemonClient.isListening(socketPath));
+    }
+  }
+
+  @Test
+  public void testSilentClientDoesNotBlockServer() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+    Path socketPath = tempDir.resolve(DaemonServer.SOCKET_NAME);
+
+    try (DaemonServer server = new DaemonServer(socketPath, args -> 3, 200);
+        SocketChannel silent = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+      startServing(server);
+      // Connecté, mais n'envoie jamais sa requête
+      silent.connect(UnixDomainSocketAddress.of(socketPath));
+
+      Integer exitCode =
+          DaemonClient.tryForward(socketPath, new String[] {"list"}, System.out, System.err, 5_000);
+      assertEquals(Integer.valueOf(3), exitCode);
+    }
+  }
+
+  @Test
+  public void testForwardFallsBackWhenServerDoesNotAnswer() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+    Path socketPath = tempDir.resolve(DaemonServer.SOCKET_NAME);
+
+    // Socket qui accepte les connexions sans jamais les traiter
+    try (ServerSocketChannel stuck = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+      stuck.bind(UnixDomainSocketAddress.of(socketPath));
+
+      long start = System.nanoTime();
+      assertNull(
+          DaemonClient.tryForward(socketPath, new String[] {"list"}, System.out, System.err, 200));
+      assertTrue(System.nanoTime() - start < 5_000_000_000L);
+    }
+  }
+
+  @Test
+  public void testBindFailsWhenAnotherServerListens() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+    Path socketPath = tempDir.resolve(DaemonServer.SOCKET_NAME);
+
+    try (DaemonServer first = new DaemonServer(socketPath, args -> 0)) {
+      startServing(first);
+
+      DaemonServer second = new DaemonServer(socketPath, args -> 0);
+      try {
+        second.bind();
+        fail("Should have thrown IOException");
+      } catch (java.io.IOException e) {
+        assertTrue(e.getMessage().startsWith("Un serveur écoute déjà"));
+      }
+    }
+  }
+
+  @Test
+  public void testForwardCommandsToWarmRepositories() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+    Path socketPath = tempDir.resolve(DaemonServer.SOCKET_NAME);
+
+    String dbPath = tempDir.toString();
+    AppConfigRepository configRepo = new AppConfigRepository(dbPath);
+    new AppState(configRepo, new ProjectsRepository(dbPath)).firstLaunchSetup();
+    CommandFactory factory = new CommandFactory(dbPath, configRepo, PragmaProfile.DURABLE);
+
+    DaemonServer server =
+        new DaemonServer(socketPath, args -> new CommandLine(App.class, factory).execute(args));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (server) {
+      startServing(server);
+
+      PrintStream print = new PrintStream(out, true, StandardCharsets.UTF_8);
+      DaemonClient.tryForward(
+          socketPath, new String[] {"add", "First", "--completed"}, print, print);
+      DaemonClient.tryForward(socketPath, new String[] {"add", "Second"}, print, print);
+      DaemonClient.tryForward(socketPath, new String[] {"list", "--count"}, print, print);
+    }
+
+    // --completed ne doit pas survivre à la première commande
+    assertEquals(
+        "La tâche '1. First' a été ajoutée.\n"
+            + "La tâche '2. Second' a été ajoutée.\n"
+            + "Done: 1 | To do: 1\n",
+        out.toString(StandardCharsets.UTF_8));
+  }
+}
@@ -189,23 +189,41 @@ public class DatabaseRepositoryTest {
       Statement stmt = conn.createStatement();
 
       // Récupérer toutes les tables créées par l'application (exclut les tables
-      // système SQLite)
+      // système SQLite et les tables internes de FTS5)
       ResultSet rsAllAppTables =
           stmt.executeQuery(
-              "SELECT name FROM sqlite_master WHERE type='table' AND name NOT LIKE 'sqlite_%' ORDER BY name");
+              "SELECT name FROM sqlite_master WHERE type='table' AND name NOT LIKE 'sqlite_%' AND name NOT LIKE '%\\_fts\\_%' ESCAPE '\\' ORDER BY name");
 
       // Vérifier qu'on a exactement les tables attendues
+      assertTrue("Should have 'csv_import_ids' table", rsAllAppTables.next());
+      assertEquals("csv_import_ids", rsAllAppTables.getString("name"));
+
+      assertTrue("Should have 'csv_imports' table", rsAllAppTables.next());
+      assertEquals("csv_imports", rsAllAppTables.getString("name"));
+
       assertTrue("Should have 'projects' table", rsAllAppTables.next());
       assertEquals("projects", rsAllAppTables.getString("name"));
 
+      assertTrue("Should have 'projects_fts' table", rsAllAppTables.next());
+      assertEquals("projects_fts", rsAllAppTables.getString("name"));
+
+      assertTrue("Should have 'task_closure' table", rsAllAppTables.next());
+      assertEquals("task_closure", rsAllAppTables.getString("name"));
+
+      assertTrue("Should have 'task_counters' table", rsAllAppTables.next());
+      assertEquals("task_counters", rsAllAppTables.getString("name"));
+
       assertTrue("Should have 'tasks' table", rsAllAppTables.next());
       assertEquals("tasks", rsAllAppTables.getString("name"));
 
+      assertTrue("Should have 'tasks_fts' table", rsAllAppTables.next());
+      assertEquals("tasks_fts", rsAllAppTables.getString("name"));
+
       assertTrue("Should have 'timelogs' table", rsAllAppTables.next());
       assertEquals("timelogs", rsAllAppTables.getString("name"));
 
       // Vérifier qu'il n'y a pas d'autres tables
-      assertFalse("Should not have more than 3 application tables", rsAllAppTables.next());
+      assertFalse("Should not have more than 9 application tables", rsAllAppTables.next());
     }
   }
 }
@@ -0,0 +1,76 @@
+package task.cli.myllaume;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import task.cli.myllaume.utils.IdRanges;
+
+public class IdRangesTest {
+
+  @Test
+  public void testParseSingleId() {
+    assertArrayEquals(new int[] {12}, IdRanges.parse("12"));
+  }
+
+  @Test
+  public void testParseRangesAndList() {
+    assertArrayEquals(new int[] {3, 4, 5, 8, 10}, IdRanges.parse("10, 3-5,8,4"));
+  }
+
+  @Test
+  public void testParseInvalid() {
+    for (String spec : new String[] {"", "a", "5-2", "0", "1,,2", "-3", "1-"}) {
+      try {
+        IdRanges.parse(spec);
+        fail("Should have thrown IllegalArgumentException for '" + spec + "'");
+      } catch (IllegalArgumentException e) {
+        assertNotNull(e.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void testParseTooManyIds() {
+    try {
+      IdRanges.parse("1-" + (IdRanges.MAX_IDS + 1));
+      fail("Should have thrown IllegalArgumentException for too many ids");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Trop d'ids, au plus " + IdRanges.MAX_IDS + " à la fois.", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testParseOverlappingRanges() {
+    assertArrayEquals(new int[] {1, 2, 3, 4, 5, 6, 9}, IdRanges.parse("4-6,1-3,2-5,9,9"));
+    assertEquals(IdRanges.MAX_IDS, IdRanges.parse("1-" + IdRanges.MAX_IDS + ",1-10").length);
+  }
+
+  @Test
+  public void testParseHugeId() {
+    assertArrayEquals(new int[] {2_000_000_000}, IdRanges.parse("2000000000"));
+  }
+
+  @Test
+  public void testParseMaxIntId() {
+    int max = Integer.MAX_VALUE;
+    assertArrayEquals(new int[] {max}, IdRanges.parse(String.valueOf(max)));
+    assertArrayEquals(
+        new int[] {max - 2, max - 1, max}, IdRanges.parse((max - 2) + "-" + max + "," + max));
+  }
+
+  @Test
+  public void testParseTooManyHugeIds() {
+    try {
+      IdRanges.parse("1-5," + (Integer.MAX_VALUE - IdRanges.MAX_IDS) + "-" + Integer.MAX_VALUE);
+      fail("Should have thrown IllegalArgumentException for too many ids");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Trop d'ids, au plus " + IdRanges.MAX_IDS + " à la fois.", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testToJson() {
+    assertEquals("[1,2,30]", IdRanges.toJson(new int[] {1, 2, 30}));
+    assertEquals("[]", IdRanges.toJson(new int[0]));
+  }
+}
@@ -0,0 +1,66 @@
+package task.cli.myllaume;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import task.cli.myllaume.db.LatencyHistogram;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void testPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long micros = 1; micros <= 10_000; micros++) {
+      histogram.record(micros);
+    }
+
+    assertEquals(10_000, histogram.getCount());
+    assertEquals(10_000, histogram.getMaxMicros());
+    assertEquals(5_000, histogram.getValueAtPercentile(50), 5_000 * 0.07);
+    assertEquals(9_900, histogram.getValueAtPercentile(99), 9_900 * 0.07);
+    assertEquals(10_000, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void testSmallValuesAreExact() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(3);
+    histogram.record(7);
+
+    assertEquals(3, histogram.getValueAtPercentile(50));
+    assertEquals(7, histogram.getValueAtPercentile(99));
+  }
+
+  @Test
+  public void testEmptyHistogram() {
+    assertEquals(0, new LatencyHistogram().getValueAtPercentile(50));
+  }
+
+  @Test
+  public void testEncodeDecode() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(12);
+    histogram.record(4_500);
+    histogram.record(1_000_000);
+
+    LatencyHistogram decoded = LatencyHistogram.decode(histogram.encode());
+    assertEquals(3, decoded.getCount());
+    assertEquals(histogram.getTotalMicros(), decoded.getTotalMicros());
+    assertEquals(1_000_000, decoded.getMaxMicros());
+    assertEquals(histogram.getValueAtPercentile(50), decoded.getValueAtPercentile(50));
+  }
+
+  @Test
+  public void testAdd() {
+    LatencyHistogram first = new LatencyHistogram();
+    first.record(10);
+    LatencyHistogram second = new LatencyHistogram();
+    second.record(20);
+    second.record(30);
+
+    first.add(second);
+    assertEquals(3, first.getCount());
+    assertEquals(60, first.getTotalMicros());
+    assertEquals(30, first.getMaxMicros());
+  }
+}
@@ -0,0 +1,90 @@
+package task.cli.myllaume;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Test;
+import task.cli.myllaume.csv.MappedCsvReader;
+
+public class MappedCsvReaderTest {
+
+  private File writeFile(String content) throws IOException {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+    File file = new File(tempDir.toString() + "/tasks.csv");
+    Files.writeString(file.toPath(), content, StandardCharsets.UTF_8);
+    return file;
+  }
+
+  @Test
+  public void testReadLines() throws Exception {
+    File file = writeFile("description,completed\r\nPréparer le repas,false\nDernière,true");
+
+    try (MappedCsvReader reader = new MappedCsvReader(file.getAbsolutePath())) {
+      assertEquals("description,completed", reader.readLine());
+      assertEquals("Préparer le repas,false", reader.readLine());
+      assertEquals("Dernière,true", reader.readLine());
+      assertNull(reader.readLine());
+    }
+  }
+
+  @Test
+  public void testBlocksAcrossWindows() throws Exception {
+    StringBuilder content = new StringBuilder();
+    for (int i = 1; i <= 100; i++) {
+      content.append("Task ").append(i).append(",true\n");
+    }
+    File file = writeFile(content.toString());
+
+    // Fenêtre plus petite que trois lignes : les blocs doivent être reprojetés
+    try (MappedCsvReader reader = new MappedCsvReader(file.getAbsolutePath(), 32)) {
+      int expectedLine = 1;
+      MappedCsvReader.LineBlock block;
+      while ((block = reader.nextBlock(7)) != null) {
+        assertEquals(expectedLine, block.getFirstLine());
+
+        String text = StandardCharsets.UTF_8.decode(block.getBuffer()).toString();
+        String[] lines = text.split("\n");
+        for (String line : lines) {
+          assertEquals("Task " + expectedLine + ",true", line);
+          expectedLine++;
+        }
+      }
+      assertEquals(101, expectedLine);
+    }
+  }
+
+  @Test
+  public void testBlockKeepsQuotedNewlines() throws Exception {
+    File file = writeFile("\"Première ligne\nseconde ligne\",true\nSuivante,false\n");
+
+    try (MappedCsvReader reader = new MappedCsvReader(file.getAbsolutePath())) {
+      MappedCsvReader.LineBlock first = reader.nextBlock(1);
+      assertEquals(1, first.getFirstLine());
+      assertEquals(
+          "\"Première ligne\nseconde ligne\",true\n",
+          StandardCharsets.UTF_8.decode(first.getBuffer()).toString());
+
+      MappedCsvReader.LineBlock second = reader.nextBlock(1);
+      assertEquals(3, second.getFirstLine());
+      assertNull(reader.nextBlock(1));
+    }
+  }
+
+  @Test
+  public void testLineLongerThanWindow() throws Exception {
+    File file = writeFile("description,completed\nUne description bien trop longue,true\n");
+
+    try (MappedCsvReader reader = new MappedCsvReader(file.getAbsolutePath(), 24)) {
+      assertEquals("description,completed", reader.readLine());
+      reader.readLine();
+      fail("Should have thrown IOException for a line longer than the window");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().startsWith("Ligne trop longue"));
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package task.cli.myllaume;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import org.junit.Test;
+import task.cli.myllaume.db.PragmaProfile;
+
+public class PragmaProfileTest {
+
+  private String queryPragma(TaskRepositorySqlite repo, String pragma) throws Exception {
+    try (Connection conn = repo.getPool().getConnection();
+        Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery("PRAGMA " + pragma)) {
+      assertTrue(rs.next());
+      return rs.getString(1);
+    }
+  }
+
+  @Test
+  public void testFromName() {
+    assertEquals(PragmaProfile.DURABLE, PragmaProfile.fromName("durable"));
+    assertEquals(PragmaProfile.FAST, PragmaProfile.fromName(" FAST "));
+  }
+
+  @Test
+  public void testFromNameUnknown() {
+    try {
+      PragmaProfile.fromName("unknown");
+      fail("Should have thrown IllegalArgumentException for unknown profile");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Profil de pragmas inconnu : unknown", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testDurableProfileIsApplied() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(tempDir.toString());
+
+    assertEquals("wal", queryPragma(repo, "journal_mode"));
+    assertEquals("2", queryPragma(repo, "synchronous"));
+    assertEquals("1", queryPragma(repo, "foreign_keys"));
+  }
+
+  @Test
+  public void testFastProfileIsApplied() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(tempDir.toString(), PragmaProfile.FAST);
+
+    assertEquals("wal", queryPragma(repo, "journal_mode"));
+    assertEquals("1", queryPragma(repo, "synchronous"));
+    assertEquals("2", queryPragma(repo, "temp_store"));
+    assertEquals("-65536", queryPragma(repo, "cache_size"));
+    assertEquals("5000", queryPragma(repo, "busy_timeout"));
+  }
+}
@@ -4,6 +4,10 @@ import static org.junit.Assert.*;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.Instant;
 import java.util.ArrayList;
 import org.junit.Test;
@@ -163,6 +167,22 @@ public class ProjectsRepositoryTest {
     assertEquals(0, projects.size());
   }
 
+  @Test
+  public void testSearchProjectsAfterRename() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    ProjectsRepository repo = new ProjectsRepository(dbPath);
+    repo.initTables();
+
+    ProjectDb project = repo.createProject(ProjectData.of("Web Development", Instant.now()));
+    repo.updateProjectName(project.getId(), "Mobile");
+
+    assertEquals(0, repo.searchProjects("web", 10).size());
+    assertEquals(1, repo.searchProjects("mob", 10).size());
+  }
+
   @Test
   public void testUpdateProjectName() throws Exception {
     Path tempDir = Files.createTempDirectory("tests");
@@ -269,6 +289,54 @@ public class ProjectsRepositoryTest {
     assertEquals(secondProject.getId(), currentProject.getId());
   }
 
+  @Test
+  public void testCurrentProjectIdFollowsUpdates() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    ProjectsRepository repo = new ProjectsRepository(dbPath);
+    repo.initTables();
+    assertNull(repo.getCurrentProjectId());
+
+    ProjectDb defaultProject = repo.insertDefaultProjectIfNoneExists(defaultProjectData);
+    assertEquals(Integer.valueOf(defaultProject.getId()), repo.getCurrentProjectId());
+
+    ProjectDb secondProject = repo.createProject(ProjectData.of("Second Project", Instant.now()));
+    repo.updateCurrentProject(secondProject.getId());
+    assertEquals(Integer.valueOf(secondProject.getId()), repo.getCurrentProjectId());
+
+    // Un autre repository sur la même base partage le cache
+    assertEquals(
+        Integer.valueOf(secondProject.getId()),
+        new ProjectsRepository(dbPath).getCurrentProjectId());
+
+    repo.dropTables();
+    repo.initTables();
+    assertNull(repo.getCurrentProjectId());
+  }
+
+  @Test
+  public void testOnlyOneCurrentProject() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    ProjectsRepository repo = new ProjectsRepository(dbPath);
+    repo.initTables();
+
+    repo.insertDefaultProjectIfNoneExists(defaultProjectData);
+    ProjectDb secondProject = repo.createProject(ProjectData.of("Second Project", Instant.now()));
+
+    try (Connection conn = DriverManager.getConnection(repo.getUrl());
+        Statement stmt = conn.createStatement()) {
+      stmt.executeUpdate("UPDATE projects SET is_current = 1 WHERE id = " + secondProject.getId());
+      fail("Should have thrown SQLException for a second current project");
+    } catch (SQLException e) {
+      assertTrue(e.getMessage().contains("UNIQUE constraint failed"));
+    }
+  }
+
   @Test
   public void testUpdateCurrentProjectNonExistent() throws Exception {
     Path tempDir = Files.createTempDirectory("tests");
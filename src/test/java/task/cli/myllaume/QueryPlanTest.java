@@ -0,0 +1,254 @@
+package task.cli.myllaume;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.junit.Test;
+import task.cli.myllaume.db.ProjectsRepository;
+import task.cli.myllaume.db.TimelogsRepository;
+
+/**
+ * Exécute chaque méthode des repositories en interceptant les requêtes SQL envoyées, et vérifie via
+ * EXPLAIN QUERY PLAN qu'aucune ne parcourt une table complète sans index.
+ */
+public class QueryPlanTest {
+  private static final Pattern fullScan =
+      Pattern.compile("^SCAN (tasks|projects|timelogs|task_closure)$");
+
+  private static class PlanRecorder {
+    final List<String> queries = new ArrayList<>();
+    final List<String> violations = new ArrayList<>();
+
+    void explain(Connection conn, String sql) throws SQLException {
+      String trimmed = sql.trim();
+      String keyword = trimmed.split("\\s+")[0].toUpperCase();
+      if (!List.of("SELECT", "INSERT", "UPDATE", "DELETE", "WITH").contains(keyword)) {
+        return;
+      }
+
+      queries.add(trimmed);
+      try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + trimmed);
+          ResultSet rs = pstmt.executeQuery()) {
+        while (rs.next()) {
+          String detail = rs.getString("detail");
+          if (fullScan.matcher(detail).matches()) {
+            violations.add(detail + " <- " + trimmed.replaceAll("\\s+", " "));
+          }
+        }
+      }
+    }
+
+    Connection wrap(Connection conn) {
+      return (Connection)
+          Proxy.newProxyInstance(
+              getClass().getClassLoader(),
+              new Class<?>[] {Connection.class},
+              (proxy, method, args) -> {
+                if (method.getName().equals("prepareStatement")) {
+                  explain(conn, (String) args[0]);
+                }
+                Object result = invoke(conn, method, args);
+                if (method.getName().equals("createStatement")) {
+                  return wrap(conn, (Statement) result);
+                }
+                return result;
+              });
+    }
+
+    Statement wrap(Connection conn, Statement stmt) {
+      return (Statement)
+          Proxy.newProxyInstance(
+              getClass().getClassLoader(),
+              new Class<?>[] {Statement.class},
+              (proxy, method, args) -> {
+                if (method.getName().startsWith("execute") && args != null && args.length > 0) {
+                  explain(conn, (String) args[0]);
+                }
+                return invoke(stmt, method, args);
+              });
+    }
+
+    private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args)
+        throws Throwable {
+      try {
+        return method.invoke(target, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+  }
+
+  private static class PlannedTaskRepository extends TaskRepositorySqlite {
+    private final PlanRecorder recorder;
+
+    PlannedTaskRepository(String dbPath, PlanRecorder recorder) {
+      super(dbPath);
+      this.recorder = recorder;
+    }
+
+    @Override
+    protected Connection getConnection() throws SQLException {
+      return recorder.wrap(super.getConnection());
+    }
+  }
+
+  private static class PlannedProjectsRepository extends ProjectsRepository {
+    private final PlanRecorder recorder;
+
+    PlannedProjectsRepository(String dbPath, PlanRecorder recorder) {
+      super(dbPath);
+      this.recorder = recorder;
+    }
+
+    @Override
+    protected Connection getConnection() throws SQLException {
+      return recorder.wrap(super.getConnection());
+    }
+  }
+
+  private static class PlannedTimelogsRepository extends TimelogsRepository {
+    private final PlanRecorder recorder;
+
+    PlannedTimelogsRepository(String dbPath, PlanRecorder recorder) {
+      super(dbPath);
+      this.recorder = recorder;
+    }
+
+    @Override
+    protected Connection getConnection() throws SQLException {
+      return recorder.wrap(super.getConnection());
+    }
+  }
+
+  private void assertNoFullScan(PlanRecorder recorder) {
+    assertFalse("Aucune requête n'a été interceptée", recorder.queries.isEmpty());
+    assertTrue(
+        "Parcours complets détectés :\n" + String.join("\n", recorder.violations),
+        recorder.violations.isEmpty());
+  }
+
+  @Test
+  public void testProjectsRepositoryQueriesUseIndexes() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    PlanRecorder recorder = new PlanRecorder();
+    ProjectsRepository repo = new PlannedProjectsRepository(tempDir.toString(), recorder);
+    repo.initTables();
+
+    ProjectDb current =
+        repo.insertDefaultProjectIfNoneExists(ProjectsRepository.defaultProjectData);
+    ProjectDb other = repo.createProject(ProjectData.of("Other", Instant.now()));
+    repo.getCurrentProject();
+    repo.hasCurrentProject();
+    repo.getProject(other.getId());
+    repo.getProjects(10);
+    repo.searchProjects("oth", 10);
+    repo.updateProjectName(other.getId(), "Renamed");
+    repo.countProjects();
+    repo.updateCurrentProject(current.getId());
+    repo.removeProject(other.getId());
+
+    assertNoFullScan(recorder);
+  }
+
+  @Test
+  public void testTaskRepositoryQueriesUseIndexes() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    PlanRecorder recorder = new PlanRecorder();
+    TaskRepositorySqlite repo = new PlannedTaskRepository(tempDir.toString(), recorder);
+    repo.initTables();
+    ProjectDb project =
+        new ProjectsRepository(tempDir.toString())
+            .insertDefaultProjectIfNoneExists(ProjectsRepository.defaultProjectData);
+
+    Instant now = Instant.now();
+    Task task =
+        repo.createTask(
+            TaskData.of("Parent", false, TaskPriority.HIGH, now, null, null), project.getId());
+    Task subTask =
+        repo.createSubTask(
+            task.getId(), TaskData.of("Child", false, TaskPriority.LOW, now, null, null));
+
+    repo.createTasks(
+        List.of(TaskData.of("Batch", false, TaskPriority.LOW, now, null, null)), project.getId());
+
+    repo.getTask(task.getId());
+    repo.getTasks(10);
+    repo.getTasksPage(repo.getTasksPage(null, 1).getNextToken(), 1);
+    repo.getProjectTasks(project.getId(), 10);
+    repo.getTasksOrderByPriority(7, 10);
+    repo.getTaskWithSubTasks(task.getId(), 10);
+    repo.getTaskTree(task.getId());
+    repo.getSubtreeProgress(task.getId());
+    repo.getOpenLeaves(project.getId(), 10);
+    repo.getProjectTaskTrees(project.getId(), 5, 100);
+    repo.getLastTask();
+    repo.searchTasks("par", 10);
+    repo.searchTasksTodo("par", 10);
+    repo.searchTasksDone("par", 10);
+    repo.updateTaskName(task.getId(), "Renamed");
+    repo.updateTaskCompleted(task.getId(), true);
+    repo.updateTaskPriority(task.getId(), TaskPriority.LOW);
+    repo.updateTaskDueDate(task.getId(), now);
+    repo.countTasks();
+    repo.countTasksTodo();
+    repo.countTasksDone();
+    repo.getProjectTaskCounters();
+    repo.importFromCsv("src/test/resources/valid-tasks.csv", project.getId());
+    repo.exportToCsv(tempDir.toString() + "/export.csv", 10, true);
+    repo.updatePriority(new int[] {task.getId(), subTask.getId()}, TaskPriority.HIGH);
+    repo.completeTasks(new int[] {task.getId(), subTask.getId()});
+    repo.completeAllMatching("child");
+    repo.removeTask(subTask.getId());
+    repo.removeTasks(new int[] {task.getId()});
+
+    assertNoFullScan(recorder);
+  }
+
+  @Test
+  public void testTimelogsRepositoryQueriesUseIndexes() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    PlanRecorder recorder = new PlanRecorder();
+    TimelogsRepository repo = new PlannedTimelogsRepository(tempDir.toString(), recorder);
+    repo.initTables();
+    ProjectDb project =
+        new ProjectsRepository(tempDir.toString())
+            .insertDefaultProjectIfNoneExists(ProjectsRepository.defaultProjectData);
+    Task task =
+        new TaskRepositorySqlite(tempDir.toString())
+            .createTask(
+                TaskData.of("Task", false, TaskPriority.LOW, Instant.now(), null, null),
+                project.getId());
+
+    Instant start = Instant.now().minusSeconds(60);
+    TimelogDb timelog =
+        repo.createTimelog(TimelogData.of(task.getId(), start, start.plusSeconds(30)));
+    repo.getTimelog(timelog.getId());
+    repo.getTimelogsByTask(task.getId(), 10);
+    repo.getTimelogs(10);
+    repo.updateTimelog(timelog.getId(), TimelogData.of(task.getId(), start, start.plusSeconds(45)));
+    repo.getTotalDurationForTask(task.getId());
+    repo.countTimelogsByTask(task.getId());
+    repo.countTimelogs();
+    repo.removeTimelog(timelog.getId());
+
+    assertNoFullScan(recorder);
+  }
+}
@@ -0,0 +1,137 @@
+package task.cli.myllaume;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import org.junit.After;
+import org.junit.Test;
+import task.cli.myllaume.db.DatabaseRepository;
+import task.cli.myllaume.db.QueryStats;
+
+public class QueryStatsTest {
+  private static final String COUNT_TO =
+      "WITH RECURSIVE c(x) AS (SELECT 1 UNION ALL SELECT x + 1 FROM c WHERE x < ?) SELECT x FROM c";
+
+  private static class Repository extends DatabaseRepository {
+    Repository(String dbPath) {
+      super(dbPath);
+    }
+
+    int countTo(int max) throws SQLException {
+      return countTo(max, 0);
+    }
+
+    /**
+     * @param pauseMillis Travail simulé de l'appelant sur chaque ligne
+     */
+    int countTo(int max, long pauseMillis) throws SQLException {
+      int rows = 0;
+      try (Connection conn = getConnection();
+          PreparedStatement pstmt = conn.prepareStatement(COUNT_TO)) {
+        pstmt.setInt(1, max);
+        try (ResultSet rs = pstmt.executeQuery()) {
+          while (rs.next()) {
+            rows++;
+            if (pauseMillis > 0) {
+              try {
+                Thread.sleep(pauseMillis);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            }
+          }
+        }
+      }
+      return rows;
+    }
+  }
+
+  private QueryStats.Entry find(List<QueryStats.Entry> entries, String sql) {
+    return entries.stream().filter(entry -> entry.getSql().equals(sql)).findFirst().orElse(null);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    QueryStats.configure(false, null, QueryStats.DEFAULT_SLOW_QUERY_MILLIS);
+    QueryStats.reset();
+  }
+
+  @Test
+  public void testQueriesAreMeasured() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    QueryStats.configure(true, null, QueryStats.DEFAULT_SLOW_QUERY_MILLIS);
+    Repository repo = new Repository(tempDir.toString());
+    assertEquals(50, repo.countTo(50));
+    assertEquals(30, repo.countTo(30));
+
+    QueryStats.Entry entry = find(QueryStats.snapshot(), COUNT_TO);
+    assertNotNull(entry);
+    assertTrue(entry.getHistogram().getCount() >= 2);
+    assertTrue(entry.getRows() >= 80);
+    assertNotNull(find(QueryStats.snapshot(), QueryStats.ACQUIRE_KEY));
+  }
+
+  @Test
+  public void testFlushWritesStatsAndSlowLog() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    QueryStats.configure(true, tempDir, 1);
+    Repository repo = new Repository(tempDir.toString());
+    assertEquals(500_000, repo.countTo(500_000));
+    QueryStats.flush();
+
+    assertTrue(QueryStats.snapshot().isEmpty());
+    assertTrue(Files.exists(tempDir.resolve(QueryStats.STATS_FILE)));
+    QueryStats.Entry entry = find(QueryStats.load(), COUNT_TO);
+    assertNotNull(entry);
+    assertTrue(entry.getRows() >= 500_000);
+
+    String slowLog = Files.readString(tempDir.resolve(QueryStats.SLOW_LOG_FILE));
+    assertTrue(slowLog.contains(COUNT_TO));
+    assertTrue(slowLog.contains("500000 ligne(s)"));
+
+    QueryStats.reset();
+    assertFalse(Files.exists(tempDir.resolve(QueryStats.STATS_FILE)));
+    assertNull(find(QueryStats.load(), COUNT_TO));
+  }
+
+  @Test
+  public void testCallerTimeIsNotMeasured() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    QueryStats.configure(true, null, QueryStats.DEFAULT_SLOW_QUERY_MILLIS);
+    Repository repo = new Repository(tempDir.toString());
+    assertEquals(5, repo.countTo(5, 60));
+
+    QueryStats.Entry entry = find(QueryStats.snapshot(), COUNT_TO);
+    assertNotNull(entry);
+    assertEquals(5, entry.getRows());
+    assertTrue(entry.getHistogram().getMaxMicros() < 200_000);
+  }
+
+  @Test
+  public void testDisabledMeasuresNothing() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    QueryStats.configure(false, tempDir, 1);
+    Repository repo = new Repository(tempDir.toString());
+    assertEquals(50, repo.countTo(50));
+    QueryStats.flush();
+
+    assertFalse(QueryStats.isEnabled());
+    assertTrue(QueryStats.snapshot().isEmpty());
+    assertFalse(Files.exists(tempDir.resolve(QueryStats.STATS_FILE)));
+    assertFalse(Files.exists(tempDir.resolve(QueryStats.SLOW_LOG_FILE)));
+  }
+}
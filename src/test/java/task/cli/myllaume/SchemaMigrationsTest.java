@@ -0,0 +1,96 @@
+package task.cli.myllaume;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import org.junit.Test;
+import task.cli.myllaume.db.ProjectsRepository;
+import task.cli.myllaume.db.SchemaMigrations;
+
+public class SchemaMigrationsTest {
+
+  @Test
+  public void testInitTablesSetsLatestVersion() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    ProjectsRepository repo = new ProjectsRepository(tempDir.toString());
+    repo.initTables();
+
+    try (Connection conn = DriverManager.getConnection(repo.getUrl())) {
+      assertEquals(SchemaMigrations.getLatestVersion(), SchemaMigrations.getVersion(conn));
+    }
+  }
+
+  @Test
+  public void testMigrateIsNoopWhenUpToDate() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    ProjectsRepository repo = new ProjectsRepository(tempDir.toString());
+
+    try (Connection conn = DriverManager.getConnection(repo.getUrl())) {
+      assertTrue(SchemaMigrations.migrate(conn));
+      assertFalse(SchemaMigrations.migrate(conn));
+    }
+  }
+
+  @Test
+  public void testMigrateLegacyDatabaseKeepsData() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    ProjectsRepository repo = new ProjectsRepository(tempDir.toString());
+
+    // Base créée par une version sans user_version
+    try (Connection conn = DriverManager.getConnection(repo.getUrl());
+        Statement stmt = conn.createStatement()) {
+      stmt.execute(
+          """
+          CREATE TABLE projects (
+              id INTEGER PRIMARY KEY AUTOINCREMENT,
+              name TEXT NOT NULL UNIQUE,
+              fulltext TEXT NOT NULL,
+              created_at INTEGER NOT NULL,
+              is_current INTEGER NOT NULL DEFAULT 0
+          )
+          """);
+      stmt.execute(
+          "INSERT INTO projects (name, fulltext, created_at, is_current) VALUES ('a', 'a', 0, 1)");
+    }
+
+    repo.initTables();
+
+    assertEquals(1, repo.countProjects());
+    try (Connection conn = DriverManager.getConnection(repo.getUrl());
+        Statement stmt = conn.createStatement();
+        ResultSet rs =
+            stmt.executeQuery(
+                "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_tasks_name'")) {
+      assertTrue("Index should be created by migration", rs.next());
+      assertEquals(SchemaMigrations.getLatestVersion(), SchemaMigrations.getVersion(conn));
+    }
+  }
+
+  @Test
+  public void testDropTablesResetsVersion() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    ProjectsRepository repo = new ProjectsRepository(tempDir.toString());
+    repo.initTables();
+    repo.dropTables();
+
+    try (Connection conn = DriverManager.getConnection(repo.getUrl())) {
+      assertEquals(0, SchemaMigrations.getVersion(conn));
+    }
+
+    repo.initTables();
+    assertEquals(0, repo.countProjects());
+  }
+}
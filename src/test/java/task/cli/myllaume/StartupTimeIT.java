@@ -0,0 +1,73 @@
+package task.cli.myllaume;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Compare le démarrage du jar et de l'exécutable natif sur {@code tasks list}. Lancé par le profil
+ * Maven {@code native} après la construction des deux artefacts, ignoré s'ils sont absents.
+ */
+public class StartupTimeIT {
+  private static final int RUNS = 7;
+
+  private static long medianMillis(List<String> command, Path home) throws Exception {
+    // Premier lancement : création de la configuration et de la base, hors mesure
+    run(command, home);
+
+    List<Long> durations = new ArrayList<>();
+    for (int i = 0; i < RUNS; i++) {
+      long start = System.nanoTime();
+      run(command, home);
+      durations.add((System.nanoTime() - start) / 1_000_000);
+    }
+    Collections.sort(durations);
+    return durations.get(RUNS / 2);
+  }
+
+  private static void run(List<String> command, Path home) throws Exception {
+    ProcessBuilder builder = new ProcessBuilder(command);
+    builder.environment().put("HOME", home.toString());
+    builder.redirectErrorStream(true);
+    builder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+    Process process = builder.start();
+    assertEquals("Exit code of " + command, 0, process.waitFor());
+  }
+
+  @Test
+  public void testNativeStartsFasterThanJar() throws Exception {
+    String jar = System.getProperty("tasks.jar");
+    String nativeImage = System.getProperty("tasks.native");
+    assumeTrue(jar != null && new File(jar).isFile());
+    assumeTrue(nativeImage != null && new File(nativeImage).canExecute());
+    long maxMillis = Long.getLong("tasks.startup.maxMillis", 20);
+
+    Path jarHome = Files.createTempDirectory("tests");
+    jarHome.toFile().deleteOnExit();
+    Path nativeHome = Files.createTempDirectory("tests");
+    nativeHome.toFile().deleteOnExit();
+
+    String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    long jarMillis =
+        medianMillis(Arrays.asList(java, "-Duser.home=" + jarHome, "-jar", jar, "list"), jarHome);
+    long nativeMillis =
+        medianMillis(Arrays.asList(nativeImage, "-Duser.home=" + nativeHome, "list"), nativeHome);
+
+    System.out.println(
+        "Démarrage de tasks list : jar " + jarMillis + " ms, natif " + nativeMillis + " ms");
+    assertTrue(
+        "Native startup (" + nativeMillis + " ms) should beat the jar (" + jarMillis + " ms)",
+        nativeMillis < jarMillis);
+    assertTrue(
+        "Native startup took " + nativeMillis + " ms, budget is " + maxMillis + " ms",
+        nativeMillis <= maxMillis);
+  }
+}
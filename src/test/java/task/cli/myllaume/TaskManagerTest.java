@@ -4,6 +4,9 @@ import static org.junit.Assert.*;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
 import java.time.Instant;
 import org.junit.Test;
 import task.cli.myllaume.db.ProjectsRepository;
@@ -158,6 +161,67 @@ public class TaskManagerTest {
     assertNotEquals(task1.getId(), task2.getId());
   }
 
+  @Test
+  public void testCreateTaskAfterCachedProjectWasDeleted() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    ProjectsRepository projectsRepo = new ProjectsRepository(dbPath);
+    TaskRepositorySqlite taskRepo = new TaskRepositorySqlite(dbPath);
+    projectsRepo.initTables();
+
+    ProjectDb project1 =
+        projectsRepo.insertDefaultProjectIfNoneExists(ProjectData.of("Project 1", Instant.now()));
+    ProjectDb project2 = projectsRepo.createProject(ProjectData.of("Project 2", Instant.now()));
+
+    TaskManager taskManager = new TaskManager(taskRepo, projectsRepo);
+
+    // Changement fait par un autre processus, sans passer par le cache
+    try (Connection conn = DriverManager.getConnection(projectsRepo.getUrl());
+        Statement stmt = conn.createStatement()) {
+      stmt.execute("PRAGMA foreign_keys = ON");
+      stmt.executeUpdate("DELETE FROM projects WHERE id = " + project1.getId());
+      stmt.executeUpdate("UPDATE projects SET is_current = 1 WHERE id = " + project2.getId());
+    }
+
+    Instant now = Instant.now();
+    Task task =
+        taskManager.createTaskOnCurrentProject(
+            TaskData.of("Task", false, TaskPriority.LOW, now, null, null));
+
+    assertEquals(1, taskRepo.getProjectTasks(project2.getId(), 10).size());
+    assertEquals(task.getId(), taskRepo.getProjectTasks(project2.getId(), 10).get(0).getId());
+  }
+
+  @Test
+  public void testImportAfterCachedProjectWasDeleted() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    ProjectsRepository projectsRepo = new ProjectsRepository(dbPath);
+    TaskRepositorySqlite taskRepo = new TaskRepositorySqlite(dbPath);
+    projectsRepo.initTables();
+
+    ProjectDb project1 =
+        projectsRepo.insertDefaultProjectIfNoneExists(ProjectData.of("Project 1", Instant.now()));
+    ProjectDb project2 = projectsRepo.createProject(ProjectData.of("Project 2", Instant.now()));
+
+    TaskManager taskManager = new TaskManager(taskRepo, projectsRepo);
+
+    // Changement fait par un autre processus, sans passer par le cache
+    try (Connection conn = DriverManager.getConnection(projectsRepo.getUrl());
+        Statement stmt = conn.createStatement()) {
+      stmt.execute("PRAGMA foreign_keys = ON");
+      stmt.executeUpdate("DELETE FROM projects WHERE id = " + project1.getId());
+      stmt.executeUpdate("UPDATE projects SET is_current = 1 WHERE id = " + project2.getId());
+    }
+
+    assertEquals(52, taskManager.importFromCsvOnCurrentProject("src/test/resources/many.csv"));
+    assertEquals(52, taskRepo.getProjectTasks(project2.getId(), 100).size());
+  }
+
   @Test
   public void testTaskManagerInitializesTablesCorrectly() throws Exception {
     Path tempDir = Files.createTempDirectory("tests");
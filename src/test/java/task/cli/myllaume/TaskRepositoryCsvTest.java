@@ -6,11 +6,16 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import org.junit.Test;
 import task.cli.myllaume.csv.CsvError;
 import task.cli.myllaume.csv.CsvParsingException;
+import task.cli.myllaume.csv.CsvSchema;
 import task.cli.myllaume.csv.FileNotExistsException;
+import task.cli.myllaume.csv.ParallelCsvParser;
 import task.cli.myllaume.csv.TaskCsv;
 import task.cli.myllaume.csv.TaskRepositoryCsv;
 
@@ -89,6 +94,149 @@ public class TaskRepositoryCsvTest {
     }
   }
 
+  @Test
+  public void testParallelReaderKeepsLineOrder() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+    File file = new File(tempDir.toString() + "/tasks.csv");
+
+    StringBuilder content = new StringBuilder("description,completed\n");
+    for (int i = 0; i < 10_000; i++) {
+      content.append("Task ").append(i).append(i % 2 == 0 ? ",true\n" : ",false\n");
+    }
+    Files.writeString(file.toPath(), content.toString());
+
+    TaskRepositoryCsv repo = TaskRepositoryCsv.of(file.getAbsolutePath());
+    List<String> descriptions = new ArrayList<>();
+    try (ParallelCsvParser<String> parser = repo.openParallelReader(TaskCsv::getDescription, 4)) {
+      while (parser.hasNext()) {
+        descriptions.addAll(parser.next().getRows());
+      }
+    }
+
+    assertEquals(10_000, descriptions.size());
+    for (int i = 0; i < 10_000; i++) {
+      assertEquals("Task " + i, descriptions.get(i));
+    }
+  }
+
+  @Test
+  public void testValidateReportsErrorsInLineOrder() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+    File file = new File(tempDir.toString() + "/tasks.csv");
+
+    StringBuilder content = new StringBuilder("description,completed\n");
+    for (int i = 0; i < 10_000; i++) {
+      content.append("Task ").append(i).append(i % 1_000 == 0 ? ",maybe\n" : ",false\n");
+    }
+    Files.writeString(file.toPath(), content.toString());
+
+    TaskRepositoryCsv repo = TaskRepositoryCsv.of(file.getAbsolutePath());
+    try {
+      repo.validate();
+      fail("Should have thrown CsvParsingException for invalid lines");
+    } catch (CsvParsingException e) {
+      ArrayList<CsvError> errors = e.getErrors();
+      assertEquals(10, errors.size());
+      for (int i = 0; i < 10; i++) {
+        assertEquals(i * 1_000 + 2, errors.get(i).getLineNumber());
+      }
+    }
+  }
+
+  @Test
+  public void testWriteAllAndReadQuotedDescriptions() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+    File file = new File(tempDir.toString() + "/tasks.csv");
+
+    TaskRepositoryCsv repo = TaskRepositoryCsv.of(file.getAbsolutePath());
+    repo.writeAll(
+        List.of(
+                new TaskCsv(1, "Acheter du pain, du lait", false),
+                new TaskCsv(2, "Lire \"Le Petit Prince\"", true),
+                new TaskCsv(3, "Première ligne\nseconde ligne", false),
+                new TaskCsv(4, "Simple", true))
+            .iterator(),
+        true);
+
+    ArrayList<TaskCsv> tasks = repo.getTasks();
+    assertEquals(4, tasks.size());
+    assertEquals("Acheter du pain, du lait", tasks.get(0).getDescription());
+    assertEquals("Lire \"Le Petit Prince\"", tasks.get(1).getDescription());
+    assertTrue(tasks.get(1).getCompleted());
+    assertEquals("Première ligne\nseconde ligne", tasks.get(2).getDescription());
+    assertEquals("Simple", tasks.get(3).getDescription());
+    assertEquals(6, tasks.get(3).getId());
+  }
+
+  @Test
+  public void testReadWithUnknownColumn() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+    File file = new File(tempDir.toString() + "/tasks.csv");
+    Files.writeString(file.toPath(), "description,completed,color\nTest,true,red\n");
+
+    try {
+      TaskRepositoryCsv.of(file.getAbsolutePath()).getTasks();
+      fail("Should have thrown CsvParsingException for an unknown column");
+    } catch (CsvParsingException e) {
+      assertEquals(1, e.getErrors().get(0).getLineNumber());
+      assertEquals("Format d'en-tête incorrect.", e.getErrors().get(0).getMessage());
+    }
+  }
+
+  @Test
+  public void testWriteAllAndReadExtendedSchema() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+    File file = new File(tempDir.toString() + "/tasks.csv");
+
+    TaskCsv task = new TaskCsv(1, "Sous-tâche", true);
+    task.setSourceId(7);
+    task.setPriority(TaskPriority.HIGH);
+    task.setCreatedAt(Instant.parse("2025-01-10T08:00:00Z"));
+    task.setDoneAt(Instant.parse("2025-01-12T18:30:00Z"));
+    task.setProject("Travail, perso");
+    task.setParentId(3);
+
+    TaskRepositoryCsv repo = TaskRepositoryCsv.of(file.getAbsolutePath(), CsvSchema.V2);
+    repo.writeAll(List.of(task).iterator(), true);
+
+    assertEquals(
+        "id,description,completed,priority,created_at,due_at,done_at,project,parent_id\n"
+            + "7,Sous-tâche,true,3,2025-01-10T08:00:00Z,,2025-01-12T18:30:00Z,\"Travail, perso\",3\n",
+        Files.readString(file.toPath()));
+
+    TaskCsv read = repo.getTasks().get(0);
+    assertEquals(Integer.valueOf(7), read.getSourceId());
+    assertEquals(TaskPriority.HIGH, read.getPriority());
+    assertNull(read.getDueAt());
+    assertEquals(Instant.parse("2025-01-12T18:30:00Z"), read.getDoneAt());
+    assertEquals("Travail, perso", read.getProject());
+    assertEquals(Integer.valueOf(3), read.getParentId());
+  }
+
+  @Test
+  public void testReadWithInvalidExtendedField() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+    File file = new File(tempDir.toString() + "/tasks.csv");
+    Files.writeString(
+        file.toPath(), "description,completed,priority,due_at\nA,true,9,\nB,false,,demain\n");
+
+    try {
+      TaskRepositoryCsv.of(file.getAbsolutePath()).getTasks();
+      fail("Should have thrown CsvParsingException for invalid fields");
+    } catch (CsvParsingException e) {
+      assertEquals(2, e.getErrors().size());
+      assertEquals(
+          "Le format du champ 'priority' est incorrect.", e.getErrors().get(0).getMessage());
+      assertEquals("Le format du champ 'due_at' est incorrect.", e.getErrors().get(1).getMessage());
+    }
+  }
+
   @Test
   public void testAddLineAtEnd() throws Exception {
     File tempFile = File.createTempFile("tasks", ".csv");
@@ -107,6 +255,137 @@ public class TaskRepositoryCsvTest {
     assertFalse(tasks.get(0).getCompleted());
   }
 
+  @Test
+  public void testWriteAllOverwrite() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+    File file = new File(tempDir.toString() + "/tasks.csv");
+
+    TaskRepositoryCsv repo = TaskRepositoryCsv.of(file.getAbsolutePath());
+    repo.init(false);
+    repo.addLineAtEnd(new TaskCsv(1, "Old", false));
+
+    int count =
+        repo.writeAll(
+            List.of(new TaskCsv(1, "One", false), new TaskCsv(2, "Two", true)).iterator(), true);
+
+    assertEquals(2, count);
+    assertEquals("description,completed\nOne,false\nTwo,true\n", Files.readString(file.toPath()));
+    assertArrayEquals(new String[] {"tasks.csv"}, tempDir.toFile().list());
+  }
+
+  @Test
+  public void testWriteAllAppend() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+    File file = new File(tempDir.toString() + "/tasks.csv");
+
+    TaskRepositoryCsv repo = TaskRepositoryCsv.of(file.getAbsolutePath());
+    repo.init(false);
+    repo.addLineAtEnd(new TaskCsv(1, "Old", false));
+
+    repo.writeAll(List.of(new TaskCsv(2, "New", true)).iterator(), false);
+
+    assertEquals("description,completed\nOld,false\nNew,true\n", Files.readString(file.toPath()));
+  }
+
+  @Test
+  public void testWriteAllAppendChecksHeader() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+    File file = new File(tempDir.toString() + "/tasks.csv");
+    Files.writeString(file.toPath(), "description,completed,priority\nOld,false,1\n");
+
+    TaskRepositoryCsv repo = TaskRepositoryCsv.of(file.getAbsolutePath());
+    try {
+      repo.writeAll(List.of(new TaskCsv(2, "New", true)).iterator(), false);
+      fail("Should have thrown IllegalArgumentException for a different header");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("ne correspond pas au format d'export"));
+    }
+    assertEquals("description,completed,priority\nOld,false,1\n", Files.readString(file.toPath()));
+
+    Files.writeString(file.toPath(), "");
+    repo.writeAll(List.of(new TaskCsv(2, "New", true)).iterator(), false);
+    assertEquals("description,completed\nNew,true\n", Files.readString(file.toPath()));
+  }
+
+  @Test
+  public void testWriteAllAppendRejectsIdColumn() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+    File file = new File(tempDir.toString() + "/tasks.csv");
+
+    TaskCsv task = new TaskCsv(1, "Tâche", false);
+    task.setSourceId(1);
+    TaskRepositoryCsv repo = TaskRepositoryCsv.of(file.getAbsolutePath(), CsvSchema.V2);
+    repo.writeAll(List.of(task).iterator(), true);
+    String exported = Files.readString(file.toPath());
+
+    try {
+      repo.writeAll(List.of(task).iterator(), false);
+      fail("Should have thrown IllegalArgumentException for an id column in append mode");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("colonne id"));
+    }
+    assertEquals(exported, Files.readString(file.toPath()));
+  }
+
+  @Test
+  public void testWriteAllKeepsUserTmpFile() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+    File file = new File(tempDir.toString() + "/tasks.csv");
+    Path userFile = tempDir.resolve("tasks.csv.tmp");
+    Files.writeString(userFile, "à garder\n");
+
+    TaskRepositoryCsv repo = TaskRepositoryCsv.of(file.getAbsolutePath());
+    repo.writeAll(List.of(new TaskCsv(1, "One", false)).iterator(), true);
+
+    assertEquals("description,completed\nOne,false\n", Files.readString(file.toPath()));
+    assertEquals("à garder\n", Files.readString(userFile));
+  }
+
+  @Test
+  public void testWriteAllKeepsOriginalOnFailure() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+    File file = new File(tempDir.toString() + "/tasks.csv");
+
+    TaskRepositoryCsv repo = TaskRepositoryCsv.of(file.getAbsolutePath());
+    repo.init(false);
+    repo.addLineAtEnd(new TaskCsv(1, "Old", false));
+
+    Iterator<TaskCsv> failing =
+        new Iterator<>() {
+          private boolean first = true;
+
+          @Override
+          public boolean hasNext() {
+            return true;
+          }
+
+          @Override
+          public TaskCsv next() {
+            if (first) {
+              first = false;
+              return new TaskCsv(1, "Partial", false);
+            }
+            throw new IllegalStateException("Lecture interrompue");
+          }
+        };
+
+    try {
+      repo.writeAll(failing, true);
+      fail("Should have propagated the iterator failure");
+    } catch (IllegalStateException e) {
+      assertEquals("Lecture interrompue", e.getMessage());
+    }
+
+    assertEquals("description,completed\nOld,false\n", Files.readString(file.toPath()));
+    assertArrayEquals(new String[] {"tasks.csv"}, tempDir.toFile().list());
+  }
+
   @Test
   public void testInitWithNewFile() throws Exception {
     Path tempDir = Files.createTempDirectory("tests");
@@ -10,7 +10,11 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 import org.junit.Test;
+import task.cli.myllaume.csv.CsvSchema;
 import task.cli.myllaume.db.ProjectsRepository;
 import task.cli.myllaume.db.TaskManager;
 
@@ -177,6 +181,61 @@ public class TaskRepositorySqliteTest {
     assertEquals("Task3", tasks.get(2).getDescription());
   }
 
+  @Test
+  public void testBulkMutations() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString() + "/";
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(dbPath);
+    repo.initTables();
+    ProjectDb project = getDefaultProjectDb(dbPath);
+
+    Instant now = Instant.now();
+    Task one =
+        repo.createTask(
+            TaskData.of("One", false, TaskPriority.LOW, now, null, null), project.getId());
+    Task two =
+        repo.createTask(
+            TaskData.of("Two", true, TaskPriority.LOW, now, null, now), project.getId());
+    Task three =
+        repo.createTask(
+            TaskData.of("Three", false, TaskPriority.LOW, now, null, null), project.getId());
+
+    int[] ids = {one.getId(), two.getId(), three.getId(), 999};
+
+    assertEquals(3, repo.updatePriority(ids, TaskPriority.CRITICAL));
+    assertEquals(TaskPriority.CRITICAL, repo.getTask(two.getId()).getPriority());
+
+    ArrayList<Task> completed = repo.completeTasks(ids);
+    assertEquals(2, completed.size());
+    assertEquals(0, repo.countTasksTodo());
+    assertNotNull(repo.getTask(three.getId()).getDoneAt());
+
+    ArrayList<Task> removed = repo.removeTasks(new int[] {one.getId(), three.getId()});
+    assertEquals(2, removed.size());
+    assertEquals(1, repo.countTasks());
+  }
+
+  @Test
+  public void testCompleteAllMatching() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString() + "/";
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(dbPath);
+    repo.initTables();
+    TaskManager manager = getManager(dbPath);
+
+    manager.importFromCsvOnCurrentProject("src/test/resources/many.csv");
+    int todoMatching = repo.searchTasksTodo("test", 100).size();
+    int todo = repo.countTasksTodo();
+
+    assertEquals(todoMatching, repo.completeAllMatching("test"));
+    assertEquals(0, repo.searchTasksTodo("test", 100).size());
+    assertEquals(todo - todoMatching, repo.countTasksTodo());
+  }
+
   @Test
   public void testCountImportFromCsv() throws Exception {
     Path tempDir = Files.createTempDirectory("tests");
@@ -193,6 +252,140 @@ public class TaskRepositorySqliteTest {
     assertEquals(52, repo.countTasks());
   }
 
+  @Test
+  public void testImportFromCsvByChunks() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString() + "/";
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(dbPath);
+    repo.initTables();
+    ProjectsRepository repoProjects = new ProjectsRepository(dbPath);
+    ProjectDb project = repoProjects.createProject(defaultProject);
+
+    ArrayList<Integer> committed = new ArrayList<>();
+    int count =
+        repo.importFromCsv(
+            "src/test/resources/many.csv",
+            project.getId(),
+            20,
+            (importedCount, lineNumber) -> committed.add(importedCount));
+
+    assertEquals(52, count);
+    assertEquals(52, repo.countTasks());
+    assertEquals(List.of(20, 40, 52), committed);
+  }
+
+  @Test
+  public void testImportFromCsvResumesAfterInterruption() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString() + "/";
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(dbPath);
+    repo.initTables();
+    ProjectsRepository repoProjects = new ProjectsRepository(dbPath);
+    ProjectDb project = repoProjects.createProject(defaultProject);
+
+    try {
+      repo.importFromCsv(
+          "src/test/resources/many.csv",
+          project.getId(),
+          20,
+          (importedCount, lineNumber) -> {
+            throw new IllegalStateException("Interruption");
+          });
+      fail("Should have propagated the listener failure");
+    } catch (IllegalStateException e) {
+      assertEquals("Interruption", e.getMessage());
+    }
+
+    assertEquals(20, repo.countTasks());
+
+    int count = repo.importFromCsv("src/test/resources/many.csv", project.getId(), 20, null);
+    assertEquals(32, count);
+    assertEquals(52, repo.countTasks());
+
+    // L'import terminé efface son point de reprise : un nouvel import repart du début
+    count = repo.importFromCsv("src/test/resources/many.csv", project.getId(), 20, null);
+    assertEquals(52, count);
+  }
+
+  @Test
+  public void testCsvRoundTripWithExtendedSchema() throws Exception {
+    Path sourceDir = Files.createTempDirectory("tests");
+    sourceDir.toFile().deleteOnExit();
+    Path targetDir = Files.createTempDirectory("tests");
+    targetDir.toFile().deleteOnExit();
+    File exportedFile = new File(sourceDir.toString() + "/export.csv");
+
+    Instant createdAt = Instant.parse("2025-01-10T08:00:00Z");
+    Instant dueAt = Instant.parse("2025-02-01T12:00:00Z");
+    Instant doneAt = Instant.parse("2025-01-12T18:30:00Z");
+
+    ProjectsRepository sourceProjects = new ProjectsRepository(sourceDir.toString());
+    sourceProjects.initTables();
+    ProjectDb work = sourceProjects.createProject(ProjectData.of("Travail", createdAt));
+    TaskRepositorySqlite sourceTasks = new TaskRepositorySqlite(sourceDir.toString());
+    Task parent =
+        sourceTasks.createTask(
+            TaskData.of("Préparer la démo, v2", false, TaskPriority.HIGH, createdAt, dueAt, null),
+            work.getId());
+    Task sourceChild =
+        sourceTasks.createSubTask(
+            parent.getId(),
+            TaskData.of("Écrire les slides", true, TaskPriority.MEDIUM, createdAt, null, doneAt));
+
+    sourceTasks.exportToCsv(exportedFile.getAbsolutePath(), 100, true, CsvSchema.V2);
+
+    ProjectsRepository targetProjects = new ProjectsRepository(targetDir.toString());
+    targetProjects.initTables();
+    ProjectDb inbox = targetProjects.createProject(defaultProject);
+    TaskRepositorySqlite targetTasks = new TaskRepositorySqlite(targetDir.toString());
+
+    int count = targetTasks.importFromCsv(exportedFile.getAbsolutePath(), inbox.getId());
+    assertEquals(2, count);
+    assertEquals(0, targetTasks.getProjectTasks(inbox.getId(), 10).size());
+
+    Task imported = targetTasks.searchTasks("demo", 10).get(0);
+    assertEquals("Préparer la démo, v2", imported.getDescription());
+    assertEquals(TaskPriority.HIGH, imported.getPriority());
+    assertEquals(createdAt, imported.getCreatedAt());
+    assertEquals(dueAt, imported.getDueDate());
+
+    Task withSubTasks = targetTasks.getTaskWithSubTasks(imported.getId(), 10);
+    assertEquals(1, withSubTasks.getSubTasks().size());
+    Task child = withSubTasks.getSubTasks().get(0);
+    assertEquals("Écrire les slides", child.getDescription());
+    assertTrue(child.getCompleted());
+    assertEquals(sourceChild.getDoneAt(), child.getDoneAt());
+    assertEquals(TaskPriority.MEDIUM, child.getPriority());
+  }
+
+  @Test
+  public void testImportFromCsvWithPartialHeader() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+    File file = new File(tempDir.toString() + "/tasks.csv");
+    Files.writeString(
+        file.toPath(), "completed,priority,description\nfalse,4,Urgent\ntrue,,Fait\n");
+
+    String dbPath = tempDir.toString() + "/";
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(dbPath);
+    repo.initTables();
+    ProjectDb project = new ProjectsRepository(dbPath).createProject(defaultProject);
+
+    assertEquals(2, repo.importFromCsv(file.getAbsolutePath(), project.getId()));
+
+    ArrayList<Task> tasks = repo.getTasks(10);
+    assertEquals("Fait", tasks.get(0).getDescription());
+    assertEquals(TaskPriority.LOW, tasks.get(0).getPriority());
+    assertNotNull(tasks.get(0).getDoneAt());
+    assertNull(tasks.get(0).getDueDate());
+    assertEquals("Urgent", tasks.get(1).getDescription());
+    assertEquals(TaskPriority.CRITICAL, tasks.get(1).getPriority());
+  }
+
   @Test
   public void testCsvImportExport() throws Exception {
     Path tempDir = Files.createTempDirectory("tests");
@@ -269,6 +462,195 @@ public class TaskRepositorySqliteTest {
     assertEquals(1, tasks.size());
   }
 
+  @Test
+  public void testSearchTasksFollowsUpdatesAndDeletes() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(dbPath);
+    repo.initTables();
+    ProjectDb project = getDefaultProjectDb(dbPath);
+
+    Instant now = Instant.now();
+    Task task =
+        repo.createTask(
+            TaskData.of("Préparer la réunion", false, TaskPriority.LOW, now, null, null),
+            project.getId());
+
+    assertEquals(1, repo.searchTasks("reunion", 10).size());
+
+    repo.updateTaskName(task.getId(), "Écrire le rapport");
+    assertEquals(0, repo.searchTasks("reunion", 10).size());
+    assertEquals(1, repo.searchTasks("rapport", 10).size());
+
+    repo.removeTask(task.getId());
+    assertEquals(0, repo.searchTasks("rapport", 10).size());
+  }
+
+  @Test
+  public void testSearchTasksShortKeyword() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(dbPath);
+    repo.initTables();
+    ProjectDb project = getDefaultProjectDb(dbPath);
+
+    Instant now = Instant.now();
+    repo.createTask(
+        TaskData.of("Fix UI", false, TaskPriority.LOW, now, null, null), project.getId());
+    repo.createTask(
+        TaskData.of("Write doc", false, TaskPriority.LOW, now, null, null), project.getId());
+
+    ArrayList<Task> tasks = repo.searchTasks("ui", 10);
+    assertEquals(1, tasks.size());
+    assertEquals("Fix UI", tasks.get(0).getDescription());
+  }
+
+  @Test
+  public void testSearchTasksRanked() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(dbPath);
+    repo.initTables();
+    ProjectDb project = getDefaultProjectDb(dbPath);
+
+    Instant now = Instant.now();
+    repo.createTask(
+        TaskData.of(
+            "A long description of a task to plan before the release and test it",
+            false,
+            TaskPriority.LOW,
+            now,
+            null,
+            null),
+        project.getId());
+    repo.createTask(TaskData.of("Test", false, TaskPriority.LOW, now, null, null), project.getId());
+
+    ArrayList<Task> byName = repo.searchTasks("test", 10);
+    assertEquals(2, byName.size());
+    assertTrue(byName.get(0).getDescription().startsWith("A long"));
+
+    ArrayList<Task> ranked = repo.searchTasksRanked("test", 10);
+    assertEquals(2, ranked.size());
+    assertEquals("Test", ranked.get(0).getDescription());
+  }
+
+  @Test
+  public void testGetTasksPage() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(dbPath);
+    repo.initTables();
+    TaskManager manager = getManager(dbPath);
+    manager.importFromCsvOnCurrentProject("src/test/resources/many.csv");
+
+    ArrayList<Task> expected = repo.getTasks(100);
+    ArrayList<Task> paged = new ArrayList<>();
+
+    String token = null;
+    int pages = 0;
+    do {
+      TaskPage page = repo.getTasksPage(token, 10);
+      assertTrue(page.getTasks().size() <= 10);
+      paged.addAll(page.getTasks());
+      token = page.getNextToken();
+      pages++;
+    } while (token != null);
+
+    assertEquals(6, pages);
+    assertEquals(expected.size(), paged.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).getDescription(), paged.get(i).getDescription());
+    }
+  }
+
+  @Test
+  public void testGetTasksPageWithDuplicateNames() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(dbPath);
+    repo.initTables();
+    ProjectDb project = getDefaultProjectDb(dbPath);
+
+    Instant now = Instant.now();
+    for (int i = 0; i < 3; i++) {
+      repo.createTask(
+          TaskData.of("Same", false, TaskPriority.LOW, now, null, null), project.getId());
+    }
+
+    TaskPage first = repo.getTasksPage(null, 2);
+    assertEquals(2, first.getTasks().size());
+    assertTrue(first.hasNext());
+
+    TaskPage second = repo.getTasksPage(first.getNextToken(), 2);
+    assertEquals(1, second.getTasks().size());
+    assertEquals(3, second.getTasks().get(0).getId());
+    assertFalse(second.hasNext());
+  }
+
+  @Test
+  public void testGetTasksPageInvalidToken() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(tempDir.toString());
+    repo.initTables();
+
+    try {
+      repo.getTasksPage("not-a-token", 10);
+      fail("Should have thrown IllegalArgumentException for invalid token");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().startsWith("Jeton de pagination invalide"));
+    }
+  }
+
+  @Test
+  public void testStreamTasksReleasesConnectionOnClose() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(dbPath);
+    repo.initTables();
+    TaskManager manager = getManager(dbPath);
+    manager.importFromCsvOnCurrentProject("src/test/resources/many.csv");
+
+    int firstId = repo.getTasks(1).get(0).getId();
+    int idleBefore = repo.getPool().getIdleCount();
+
+    try (Stream<Task> tasks = repo.streamTasks(100)) {
+      assertEquals(idleBefore - 1, repo.getPool().getIdleCount());
+      assertEquals(firstId, tasks.findFirst().get().getId());
+    }
+
+    assertEquals(idleBefore, repo.getPool().getIdleCount());
+  }
+
+  @Test
+  public void testStreamSearchTasks() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(dbPath);
+    repo.initTables();
+    TaskManager manager = getManager(dbPath);
+    manager.importFromCsvOnCurrentProject("src/test/resources/many.csv");
+
+    try (Stream<Task> tasks = repo.streamSearchTasks("test", false, 100)) {
+      assertEquals(repo.searchTasks("test", 100).size(), tasks.count());
+    }
+  }
+
   @Test
   public void testGetTaskSuccess() throws Exception {
     Path tempDir = Files.createTempDirectory("tests");
@@ -455,6 +837,302 @@ public class TaskRepositorySqliteTest {
     assertEquals(subTask.getPriority(), subTaskFromDb.getPriority());
     assertEquals(subTask.getCreatedAt(), subTaskFromDb.getCreatedAt());
     assertEquals(subTask.getDueDate(), subTaskFromDb.getDueDate());
+
+    assertEquals(
+        3, repo.getTaskWithSubTasks(parentTask.getId(), Integer.MAX_VALUE).getSubTasks().size());
+    // Limite négative : toutes les sous-tâches, comme avant
+    assertEquals(3, repo.getTaskWithSubTasks(parentTask.getId(), -1).getSubTasks().size());
+  }
+
+  @Test
+  public void testGetTaskTree() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(dbPath);
+    repo.initTables();
+    ProjectDb project = getDefaultProjectDb(dbPath);
+
+    Instant now = Instant.now();
+    Task epic =
+        repo.createTask(
+            TaskData.of("Epic", false, TaskPriority.HIGH, now, null, null), project.getId());
+    Task story =
+        repo.createSubTask(
+            epic.getId(), TaskData.of("B story", false, TaskPriority.LOW, now, null, null));
+    repo.createSubTask(
+        epic.getId(), TaskData.of("A story", false, TaskPriority.LOW, now, null, null));
+    Task subTask =
+        repo.createSubTask(
+            story.getId(), TaskData.of("Sub task", false, TaskPriority.LOW, now, null, null));
+    repo.createSubTask(
+        subTask.getId(), TaskData.of("Leaf", true, TaskPriority.LOW, now, null, now));
+
+    Task tree = repo.getTaskTree(epic.getId());
+    assertEquals("Epic", tree.getDescription());
+    assertEquals(2, tree.getSubTasks().size());
+    assertEquals("A story", tree.getSubTasks().get(0).getDescription());
+    assertEquals(0, tree.getSubTasks().get(0).getSubTasks().size());
+    Task loadedStory = tree.getSubTasks().get(1);
+    assertEquals(story.getId(), loadedStory.getId());
+    assertEquals(1, loadedStory.getSubTasks().size());
+    Task loadedSubTask = loadedStory.getSubTasks().get(0);
+    assertEquals(1, loadedSubTask.getSubTasks().size());
+    assertEquals("Leaf", loadedSubTask.getSubTasks().get(0).getDescription());
+
+    Task shallow = repo.getTaskTree(epic.getId(), 2, 100);
+    assertEquals(0, shallow.getSubTasks().get(1).getSubTasks().get(0).getSubTasks().size());
+
+    // Les niveaux les moins profonds sont chargés en premier
+    Task small = repo.getTaskTree(epic.getId(), 10, 3);
+    assertEquals(2, small.getSubTasks().size());
+    assertEquals(0, small.getSubTasks().get(1).getSubTasks().size());
+
+    Task fromStory = repo.getTaskTree(story.getId());
+    assertEquals(1, fromStory.getSubTasks().size());
+  }
+
+  @Test
+  public void testGetProjectTaskTrees() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(dbPath);
+    repo.initTables();
+    ProjectDb project = getDefaultProjectDb(dbPath);
+    ProjectDb other =
+        new ProjectsRepository(dbPath).createProject(ProjectData.of("Other", Instant.now()));
+
+    Instant now = Instant.now();
+    Task first =
+        repo.createTask(
+            TaskData.of("First", false, TaskPriority.LOW, now, null, null), project.getId());
+    repo.createTask(
+        TaskData.of("Second", false, TaskPriority.LOW, now, null, null), project.getId());
+    repo.createTask(
+        TaskData.of("Elsewhere", false, TaskPriority.LOW, now, null, null), other.getId());
+    Task child =
+        repo.createSubTask(
+            first.getId(), TaskData.of("Child", false, TaskPriority.LOW, now, null, null));
+    repo.createSubTask(
+        child.getId(), TaskData.of("Grandchild", false, TaskPriority.LOW, now, null, null));
+
+    ArrayList<Task> roots = repo.getProjectTaskTrees(project.getId(), 10, 100);
+    assertEquals(2, roots.size());
+    assertEquals("First", roots.get(0).getDescription());
+    assertEquals("Second", roots.get(1).getDescription());
+    assertEquals(
+        "Grandchild", roots.get(0).getSubTasks().get(0).getSubTasks().get(0).getDescription());
+  }
+
+  @Test
+  public void testSubtreeProgress() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(dbPath);
+    repo.initTables();
+    ProjectDb project = getDefaultProjectDb(dbPath);
+
+    Instant now = Instant.now();
+    Task epic =
+        repo.createTask(
+            TaskData.of("Epic", false, TaskPriority.LOW, now, null, null), project.getId());
+    Task story =
+        repo.createSubTask(
+            epic.getId(), TaskData.of("Story", false, TaskPriority.LOW, now, null, null));
+    repo.createSubTask(story.getId(), TaskData.of("Done", true, TaskPriority.LOW, now, null, now));
+    Task open =
+        repo.createSubTask(
+            story.getId(), TaskData.of("Open", false, TaskPriority.LOW, now, null, null));
+
+    TaskProgress progress = repo.getSubtreeProgress(epic.getId());
+    assertEquals(3, progress.getTotal());
+    assertEquals(1, progress.getDone());
+    assertEquals(33, progress.getPercent());
+    assertEquals(2, repo.countDescendants(story.getId()));
+    assertEquals(0, repo.getSubtreeProgress(open.getId()).getPercent());
+
+    repo.updateTaskCompleted(open.getId(), true);
+    assertEquals(2, repo.getSubtreeProgress(epic.getId()).getDone());
+
+    repo.removeTask(story.getId());
+    assertEquals(0, repo.countDescendants(epic.getId()));
+
+    try {
+      repo.getSubtreeProgress(story.getId());
+      fail("Should have thrown UnknownTaskException");
+    } catch (UnknownTaskException e) {
+      assertNotNull(e.getMessage());
+    }
+  }
+
+  @Test
+  public void testGetOpenLeaves() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(dbPath);
+    repo.initTables();
+    ProjectDb project = getDefaultProjectDb(dbPath);
+
+    Instant now = Instant.now();
+    Task epic =
+        repo.createTask(
+            TaskData.of("Epic", false, TaskPriority.LOW, now, null, null), project.getId());
+    Task story =
+        repo.createSubTask(
+            epic.getId(), TaskData.of("Story", false, TaskPriority.LOW, now, null, null));
+    repo.createSubTask(
+        story.getId(), TaskData.of("B leaf", false, TaskPriority.LOW, now, null, null));
+    repo.createSubTask(
+        story.getId(), TaskData.of("Closed", true, TaskPriority.LOW, now, null, now));
+    repo.createSubTask(
+        epic.getId(), TaskData.of("A leaf", false, TaskPriority.LOW, now, null, null));
+    repo.createTask(
+        TaskData.of("Single", false, TaskPriority.LOW, now, null, null), project.getId());
+
+    ArrayList<Task> leaves = repo.getOpenLeaves(project.getId(), 10);
+    assertEquals(3, leaves.size());
+    assertEquals("A leaf", leaves.get(0).getDescription());
+    assertEquals("B leaf", leaves.get(1).getDescription());
+    assertEquals("Single", leaves.get(2).getDescription());
+  }
+
+  @Test
+  public void testImportedParentsFillClosure() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(dbPath);
+    repo.initTables();
+    ProjectDb project = getDefaultProjectDb(dbPath);
+
+    Path csvPath = tempDir.resolve("tree.csv");
+    Files.writeString(
+        csvPath,
+        "id,description,completed,parent_id\n"
+            + "3,Leaf,true,2\n"
+            + "2,Story,false,1\n"
+            + "1,Epic,false,\n");
+
+    repo.importFromCsv(csvPath.toString(), project.getId());
+
+    Task epic =
+        repo.getProjectTasks(project.getId(), 10).stream()
+            .filter(task -> task.getDescription().equals("Epic"))
+            .findFirst()
+            .get();
+    TaskProgress progress = repo.getSubtreeProgress(epic.getId());
+    assertEquals(2, progress.getTotal());
+    assertEquals(1, progress.getDone());
+  }
+
+  @Test
+  public void testTaskCounters() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(dbPath);
+    repo.initTables();
+    ProjectDb project = getDefaultProjectDb(dbPath);
+    ProjectsRepository projectsRepo = new ProjectsRepository(dbPath);
+    ProjectDb other = projectsRepo.createProject(ProjectData.of("Other", Instant.now()));
+
+    Instant now = Instant.now();
+    Task first =
+        repo.createTask(
+            TaskData.of("First", false, TaskPriority.LOW, now, null, null), project.getId());
+    Task second =
+        repo.createTask(
+            TaskData.of("Second", true, TaskPriority.LOW, now, null, now), project.getId());
+    repo.createSubTask(
+        first.getId(), TaskData.of("Child", false, TaskPriority.LOW, now, null, null));
+    repo.createTask(
+        TaskData.of("Elsewhere", false, TaskPriority.LOW, now, null, null), other.getId());
+
+    TaskCounters counters = repo.getTaskCounters();
+    assertEquals(4, counters.getTotal());
+    assertEquals(1, counters.getDone());
+    assertEquals(3, counters.getTodo());
+
+    repo.completeTasks(new int[] {first.getId()});
+    repo.updateTaskCompleted(second.getId(), false);
+    Map<Integer, TaskCounters> byProject = repo.getProjectTaskCounters();
+    assertEquals(3, byProject.get(project.getId()).getTotal());
+    assertEquals(1, byProject.get(project.getId()).getDone());
+    assertEquals(1, byProject.get(other.getId()).getTotal());
+
+    // Les sous-tâches supprimées en cascade sont aussi décomptées
+    repo.removeTask(first.getId());
+    assertEquals(1, repo.getProjectTaskCounters().get(project.getId()).getTotal());
+    assertEquals(0, repo.countTasksDone());
+
+    projectsRepo.removeProject(other.getId());
+    assertNull(repo.getProjectTaskCounters().get(other.getId()));
+    assertEquals(1, repo.countTasks());
+  }
+
+  @Test
+  public void testCreateTasks() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    String dbPath = tempDir.toString();
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(dbPath);
+    repo.initTables();
+    ProjectDb project = getDefaultProjectDb(dbPath);
+
+    Instant now = Instant.now();
+    repo.createTask(
+        TaskData.of("Existing", false, TaskPriority.LOW, now, null, null), project.getId());
+
+    List<TaskData> data = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      data.add(TaskData.of("Batch " + i, i % 2 == 0, TaskPriority.MEDIUM, now, null, null));
+    }
+
+    ArrayList<Task> tasks = repo.createTasks(data, project.getId());
+    assertEquals(500, tasks.size());
+    assertEquals("Batch 0", tasks.get(0).getDescription());
+    assertEquals("Batch 499", tasks.get(499).getDescription());
+    assertTrue(tasks.get(0).getCompleted());
+    assertNotNull(tasks.get(0).getDoneAt());
+    assertFalse(tasks.get(1).getCompleted());
+    assertEquals("batch1", tasks.get(1).getFulltext());
+    assertEquals(tasks.get(0).getId() + 499, tasks.get(499).getId());
+    assertEquals(501, repo.countTasks());
+    assertEquals(0, repo.createTasks(List.of(), project.getId()).size());
+
+    try {
+      repo.createTasks(data, 999);
+      fail("Should have thrown UnknownProjectException");
+    } catch (UnknownProjectException e) {
+      assertNotNull(e.getMessage());
+    }
+    assertEquals(501, repo.countTasks());
+  }
+
+  @Test
+  public void testGetTaskTreeUnknownTask() throws Exception {
+    Path tempDir = Files.createTempDirectory("tests");
+    tempDir.toFile().deleteOnExit();
+
+    TaskRepositorySqlite repo = new TaskRepositorySqlite(tempDir.toString());
+    repo.initTables();
+
+    try {
+      repo.getTaskTree(999);
+      fail("Should have thrown UnknownTaskException");
+    } catch (UnknownTaskException e) {
+      assertNotNull(e.getMessage());
+    }
   }
 
   @Test